@@ -0,0 +1,298 @@
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import networkFlow.*;
+
+/**
+ * The Class Batch.
+ * Solves many input files in one JVM, so that JVM startup and JIT warm-up are paid once
+ * rather than once per file. The files are the regular files of a directory, or those
+ * listed in a manifest, one path per line relative to the manifest, with blank lines and
+ * lines starting with # skipped. They are solved concurrently on a fixed pool of threads,
+ * each of which reads, solves and writes one file at a time, so at most that many networks
+ * are in memory at once. The results of every file go to a file of their own in the
+ * output directory, at the path the input file has relative to the directory or manifest,
+ * and a summary of the times is printed and written to summary.csv there.
+ */
+public class Batch {
+
+    /** The input files, in the order they are reported. */
+    private List<Path> inputs = new ArrayList<>();
+
+    /** The directory the results are written to. */
+    private Path outDir;
+
+    /** The results file of every input file. */
+    private Map<Path, Path> outputs = new HashMap<>();
+
+    /** The number of files solved at once. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** The options every file is solved with. */
+    private Algorithm algorithm = Algorithm.EDMONDS_KARP;
+    private OutputFormat format = OutputFormat.TEXT;
+    private boolean rebuildResidual;
+    private boolean parallelCheck;
+    private boolean parallelSearch;
+
+    /**
+     * The outcome of solving one file.
+     */
+    private static class Result {
+
+        /** The input file. */
+        Path input;
+
+        /** The phase times of the run. */
+        SolverStats stats = new SolverStats();
+
+        /** The time from starting to read the file to closing its results, in nanoseconds. */
+        long nanos;
+
+        /** The value of the flow found, if the file was solved. */
+        long value;
+
+        /** "ok", or what went wrong. */
+        String status = "ok";
+
+        /** The name of the algorithm run, which --algorithm=auto chooses file by file. */
+        String algorithm;
+    }
+
+    /**
+     * Runs a batch as given on the command line.
+     * @param args --batch=PATH, a directory or a manifest, optionally followed by --out=DIR
+     * (the results directory, by default "results" next to the input files), --threads=N and
+     * the --algorithm, --format, --rebuild-residual, --parallel-bfs and --parallel-check
+     * options of Main
+     * @return the exit status: 0 if every file was solved, 1 otherwise
+     */
+    public static int run(String[] args) throws Exception {
+        Batch batch = new Batch();
+        if (!batch.parseOptions(args)) {
+            return 1;
+        }
+        return batch.solveAll();
+    }
+
+    /**
+     * Reads the options and finds the input files.
+     * @param args the command line arguments
+     * @return true, if the options are valid
+     */
+    private boolean parseOptions(String[] args) throws IOException {
+        Path source = Paths.get(args[0].substring("--batch=".length()));
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--out=")) {
+                outDir = Paths.get(args[i].substring("--out=".length()));
+            }
+            else if (args[i].startsWith("--threads=")) {
+                try {
+                    threads = Integer.parseInt(args[i].substring("--threads=".length()));
+                }
+                catch (NumberFormatException e) {
+                    System.err.println("The number of threads must be a positive integer: " + args[i]);
+                    return false;
+                }
+            }
+            else if (args[i].equals("--rebuild-residual")) {
+                rebuildResidual = true;
+            }
+            else if (args[i].equals("--parallel-bfs")) {
+                parallelSearch = true;
+            }
+            else if (args[i].equals("--parallel-check")) {
+                parallelCheck = true;
+            }
+            else if (args[i].startsWith("--algorithm=") && Algorithm.byName(args[i].substring("--algorithm=".length())) != null) {
+                algorithm = Algorithm.byName(args[i].substring("--algorithm=".length()));
+            }
+            else if (args[i].startsWith("--format=") && OutputFormat.byName(args[i].substring("--format=".length())) != null) {
+                format = OutputFormat.byName(args[i].substring("--format=".length()));
+            }
+            else {
+                System.err.println("Unknown option in batch mode: " + args[i]);
+                return false;
+            }
+        }
+        if (threads < 1) {
+            System.err.println("The number of threads must be positive");
+            return false;
+        }
+        Path dir;
+        if (Files.isDirectory(source)) {
+            dir = source;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(source)) {
+                for (Path file : files) {
+                    if (Files.isRegularFile(file) && !file.getFileName().toString().startsWith(".")) {
+                        inputs.add(file);
+                    }
+                }
+            }
+            Collections.sort(inputs);
+        }
+        else {
+            dir = source.toAbsolutePath().getParent();
+            for (String line : Files.readAllLines(source)) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    inputs.add(dir.resolve(line));
+                }
+            }
+        }
+        if (outDir == null) {
+            outDir = dir.resolve("results");
+        }
+        Files.createDirectories(outDir);
+        // files of the same name in different directories must not share a results file
+        Map<Path, Path> claimed = new HashMap<>();
+        for (Path input : inputs) {
+            Path output = outputFile(dir, input);
+            Path other = claimed.putIfAbsent(output, input);
+            if (other != null) {
+                System.err.println("The results of " + other + " and " + input + " would both go to " + output);
+                return false;
+            }
+            outputs.put(input, output);
+            Files.createDirectories(output.getParent());
+        }
+        return true;
+    }
+
+    /**
+     * Solves every input file on the pool and reports the times.
+     * @return the exit status: 0 if every file was solved, 1 otherwise
+     */
+    private int solveAll() throws Exception {
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Result>> futures = new ArrayList<>();
+        try {
+            for (Path input : inputs) {
+                futures.add(pool.submit(() -> solve(input)));
+            }
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> f : futures) {
+                results.add(f.get());
+            }
+            return report(results, System.nanoTime() - start);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Reads, solves and writes the results of one file; anything that goes wrong is
+     * recorded in the result rather than thrown.
+     * @param input the input file
+     * @return the result
+     */
+    private Result solve(Path input) {
+        Result result = new Result();
+        result.input = input;
+        result.algorithm = algorithm.getName();
+        long start = System.nanoTime();
+        try {
+            FordFulk fordFulk = new FordFulk(input.toString());
+            fordFulk.setAlgorithm(algorithm);
+            fordFulk.setOutputFormat(format);
+            fordFulk.setRebuildResidual(rebuildResidual);
+            fordFulk.setParallelCheck(parallelCheck);
+            fordFulk.setParallelSearch(parallelSearch);
+            fordFulk.setListener(result.stats);
+            fordFulk.readNetwork();
+            fordFulk.fordFulkerson();
+            result.algorithm = fordFulk.getAlgorithm().getName();
+            try (ByteWriter out = new ByteWriter(FileChannel.open(outputs.get(input),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+                fordFulk.printResults(out);
+            }
+            result.value = fordFulk.getNetwork().getValue();
+        }
+        catch (Exception e) {
+            result.status = "error: " + e;
+            System.err.println(input + ": " + e);
+        }
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Gets the file the results of an input file are written to: its path relative to the
+     * directory or manifest, or just its name if it lies outside that directory, under the
+     * output directory, with its extension replaced by one for the output format.
+     * @param dir the directory of the input files, or of the manifest
+     * @param input the input file
+     * @return the results file
+     */
+    private Path outputFile(Path dir, Path input) {
+        Path base = dir.toAbsolutePath().normalize();
+        Path path = input.toAbsolutePath().normalize();
+        Path relative = path.startsWith(base) ? base.relativize(path) : path.getFileName();
+        String name = relative.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        return outDir.resolve(relative.resolveSibling(name + (format == OutputFormat.TEXT ? ".out" : "." + format.getName())));
+    }
+
+    /**
+     * Quotes a CSV field, doubling any quotes within it.
+     * @param field the field
+     * @return the quoted field
+     */
+    private static String quote(String field) {
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Writes summary.csv with the times of every file, and prints the totals.
+     * @param results the results, in input order
+     * @param wallNanos the time the whole batch took
+     * @return the exit status: 0 if every file was solved, 1 otherwise
+     */
+    private int report(List<Result> results, long wallNanos) throws IOException {
+        SolverPhase[] phases = SolverPhase.values();
+        long[] phaseTotals = new long[phases.length];
+        long totalNanos = 0;
+        int failed = 0;
+        try (ByteWriter out = new ByteWriter(FileChannel.open(outDir.resolve("summary.csv"),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            out.print("file,status,algorithm,value");
+            for (SolverPhase phase : phases) {
+                out.print(',').print(phase.name().toLowerCase()).print("_us");
+            }
+            out.println(",total_us");
+            for (Result r : results) {
+                // a path or an error message may hold commas and quotes
+                out.print(quote(r.input.toString())).print(',').print(quote(r.status)).print(',')
+                        .print(r.algorithm).print(',').print(r.value);
+                for (SolverPhase phase : phases) {
+                    long nanos = r.stats.getPhaseNanos(phase);
+                    out.print(',').print(nanos / 1000);
+                    phaseTotals[phase.ordinal()] += nanos;
+                }
+                out.print(',').print(r.nanos / 1000).println();
+                totalNanos += r.nanos;
+                if (!r.status.equals("ok")) {
+                    failed++;
+                }
+            }
+        }
+        System.out.println("Solved " + (results.size() - failed) + " of " + results.size() + " files in "
+                + wallNanos / 1000000 + " ms on " + threads + " thread" + (threads == 1 ? "" : "s")
+                + "; results in " + outDir);
+        System.out.print("Time summed over the files: " + totalNanos / 1000000 + " ms");
+        for (SolverPhase phase : phases) {
+            if (phaseTotals[phase.ordinal()] > 0) {
+                System.out.print(", " + phase.getName() + " " + phaseTotals[phase.ordinal()] / 1000000 + " ms");
+            }
+        }
+        System.out.println();
+        return failed == 0 ? 0 : 1;
+    }
+}
@@ -14,6 +14,34 @@ public class FordFulk {
 	/** The network on which the Ford-Fulkerson algorithm is to be run. */
 	private Network net; 
 
+	/** If true, a new residual graph is built for every augmenting path
+	 *  instead of reading residual capacities from net in place. */
+	private boolean rebuildResidual;
+
+	/** The algorithm used to find a maximum flow. */
+	private Algorithm algorithm = Algorithm.EDMONDS_KARP;
+
+	/** The algorithm that is run: algorithm, or with Algorithm.AUTO the one chosen for net. */
+	private Algorithm engine;
+
+	/** The analysis of net that engine was chosen from, or null if it was not chosen automatically. */
+	private NetworkAnalyser analysis;
+
+	/** The number of augmenting paths used to find the flow. */
+	private int numAugmentations;
+
+	/** If true, the flow is validated with ranges of vertices checked in parallel. */
+	private boolean parallelCheck;
+
+	/** If true, augmenting paths are searched for level by level in parallel. */
+	private boolean parallelSearch;
+
+	/** The format in which the results are written to standard output. */
+	private OutputFormat outputFormat = OutputFormat.TEXT;
+
+	/** Told about the phases, searches and augmentations of the run, or null. */
+	private SolverListener listener;
+
 	/**
 	 * Instantiates a new FordFulk object.
 	 * @param s the name of the input file
@@ -22,55 +50,174 @@ public class FordFulk {
 		filename = s; // store name of input file
 	}
 
+	/**
+	 * Chooses between rebuilding the residual graph for every augmenting path
+	 * and updating residual capacities in place (the default).
+	 * @param rebuild true to rebuild the residual graph for every augmenting path
+	 */
+	public void setRebuildResidual(boolean rebuild) {
+		rebuildResidual = rebuild;
+	}
+
+	/**
+	 * Chooses the algorithm used to find a maximum flow; with Algorithm.AUTO it is chosen
+	 * from an analysis of the network once the network has been read.
+	 * @param a the algorithm
+	 */
+	public void setAlgorithm(Algorithm a) {
+		algorithm = a;
+	}
+
+	/**
+	 * Chooses between validating the flow with ranges of vertices checked in parallel
+	 * and checking every vertex on this thread (the default).
+	 * @param parallel true to validate the flow in parallel
+	 */
+	public void setParallelCheck(boolean parallel) {
+		parallelCheck = parallel;
+	}
+
+	/**
+	 * Chooses between searching for augmenting paths breadth first on one thread (the
+	 * default) and level by level in parallel, which only pays on very large networks.
+	 * Used by the shortest augmenting path and capacity scaling algorithms.
+	 * @param parallel true to search in parallel
+	 */
+	public void setParallelSearch(boolean parallel) {
+		parallelSearch = parallel;
+	}
+
+	/**
+	 * Chooses the format in which the results are written: the sentences of TEXT (the
+	 * default), or the bare records of CSV or JSON_LINES for other programs to read.
+	 * @param format the output format
+	 */
+	public void setOutputFormat(OutputFormat format) {
+		outputFormat = format;
+	}
+
+	/**
+	 * Sets the listener told how long every phase of the run takes and about the searches
+	 * and augmentations of the algorithms that augment path by path.
+	 * @param l the listener, or null for none (the default)
+	 */
+	public void setListener(SolverListener l) {
+		listener = l;
+	}
+
+	/**
+	 * Gets the listener told about the run.
+	 * @return the listener, or null
+	 */
+	public SolverListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Gets the number of augmenting paths used to find the flow.
+	 * @return the number of augmenting paths
+	 */
+	public int getNumAugmentations() {
+		return numAugmentations;
+	}
+
+	/**
+	 * Gets the algorithm used to find a maximum flow. With Algorithm.AUTO this is the
+	 * algorithm chosen for the network, once fordFulkerson has run.
+	 * @return the algorithm
+	 */
+	public Algorithm getAlgorithm() {
+		return engine != null ? engine : algorithm;
+	}
+
+	/**
+	 * Gets the analysis of the network the algorithm was chosen from.
+	 * @return the analysis, or null if the algorithm was not chosen automatically
+	 */
+	public NetworkAnalyser getAnalysis() {
+		return analysis;
+	}
+
+	/**
+	 * Gets the network read from the input file.
+	 * @return the network
+	 */
+	public Network getNetwork() {
+		return net;
+	}
+
 	/**
 	 * Read in network from file.
 	 * See assessed exercise specification for the file format.
+	 * Exits if the file cannot be read or does not hold a network in that format.
 	 */
 	public void readNetworkFromFile() {
-		FileReader fr = null;
+		try {
+			readNetwork();
+		}
+		catch (IOException e) {
+			System.err.println("IO error:");
+			System.err.println(e);
+			System.exit(1);
+		}
+		catch (NumberFormatException e) {
+			System.err.println("Format error:");
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Read in network from file, as readNetworkFromFile does, but leave an error
+	 * reading the file to the caller.
+	 * @throws IOException if the file cannot be read
+	 */
+	public void readNetwork() throws IOException {
+		startPhase(SolverPhase.PARSE);
+		ByteTokenizer in = null;
 		// open file with name given by filename
 		try {
-			try {
-				fr = new FileReader (filename);
-				Scanner in = new Scanner (fr);
-
-				// get number of vertices
-				String line = in.nextLine();
-				int numVertices = Integer.parseInt(line);
-
-				// create new network with desired number of vertices
-				net = new Network (numVertices);
-
-				// now add the edges
-				while (in.hasNextLine()) {
-					line = in.nextLine();
-					String [] tokens = line.split("[( )]+");
-					// this line corresponds to add vertices adjacent to vertex u
-					int u = Integer.parseInt(tokens[0]);
+			in = new ByteTokenizer (filename);
+
+			// get number of vertices
+			int numVertices = in.nextInt();
+			in.nextLine();
+
+			// create new network with desired number of vertices
+			net = new Network (numVertices);
+
+			// now add the edges
+			while (in.hasNextLine()) {
+				// this line corresponds to add vertices adjacent to vertex u
+				int u = in.nextInt();
+				// get corresponding Vertex object
+				Vertex uu = net.getVertexByIndex(u);
+				while (in.hasNextOnLine()) {
+					// get label of vertex v adjacent to u
+					int v = in.nextInt();
 					// get corresponding Vertex object
-					Vertex uu = net.getVertexByIndex(u);
-					int i=1;
-					while (i<tokens.length) {
-						// get label of vertex v adjacent to u
-						int v = Integer.parseInt(tokens[i++]);
-						// get corresponding Vertex object
-						Vertex vv = net.getVertexByIndex(v);
-						// get capacity c of (uu,vv)
-						int c = Integer.parseInt(tokens[i++]);
-						// add edge (uu,vv) with capacity c to network 
+					Vertex vv = net.getVertexByIndex(v);
+					// get capacity c of (uu,vv)
+					long c = in.nextLong();
+					// add edge (uu,vv) with capacity c to network, rejecting capacities
+					// that sum past a long, as flow values could then overflow
+					try {
 						net.addEdge(uu, vv, c);
 					}
+					catch (IllegalArgumentException e) {
+						throw new NumberFormatException(e.getMessage() + " on line " + (in.getLinesRead() + 1));
+					}
 				}
+				in.nextLine();
 			}
-			finally { 
-				if (fr!=null) fr.close();
+			if (listener != null) {
+				listener.networkRead(in.getBytesRead(), in.getLinesRead(), net.getNumVertices(), net.getNumEdges());
 			}
 		}
-		catch (IOException e) {
-			System.err.println("IO error:");
-			System.err.println(e);
-			System.exit(1);
+		finally { 
+			if (in!=null) in.close();
 		}
+		finishPhase(SolverPhase.PARSE);
 	}
 
 	/**
@@ -78,42 +225,203 @@ public class FordFulk {
 	 */
 	public void fordFulkerson() throws Exception {
 
-        int newFlow = 0;
+        long newFlow = 0;
+        numAugmentations = 0;
         // initialization step; set the flow everywhere to 0 initially
-        for (int v = 0; v < net.getNumVertices(); v++) {
-            Vertex vv = net.getVertexByIndex(v);
-            for (int u = 0; u < net.getNumVertices(); u++) {
-                Vertex vu = net.getVertexByIndex(u);
-                Edge e = net.getAdjMatrixEntry(vv,vu);
-                if (e != null) {
-                    e.setFlow(newFlow);
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            net.setEdgeFlow(e, newFlow);
+        }
+        chooseEngine();
+
+        startPhase(SolverPhase.SOLVE);
+        maximiseFlow();
+        finishPhase(SolverPhase.SOLVE);
+	}
+
+    /**
+     * Sets engine to the chosen algorithm or, with Algorithm.AUTO, to the one the analysis
+     * of net picks.
+     */
+    private void chooseEngine() {
+        engine = algorithm;
+        analysis = null;
+        if (algorithm == Algorithm.AUTO) {
+            startPhase(SolverPhase.ANALYSE);
+            analysis = new NetworkAnalyser(net);
+            engine = analysis.getChoice();
+            finishPhase(SolverPhase.ANALYSE);
+        }
+    }
+
+    /**
+     * Increases the flow of net to a maximum flow using the chosen algorithm.
+     */
+    private void maximiseFlow() throws Exception {
+        switch (engine) {
+            case DINIC:
+                new Dinic(net).maxFlow();
+                break;
+            case CAPACITY_SCALING:
+                augmentWithScaling();
+                break;
+            case FATTEST_PATH:
+                augmentWidest();
+                break;
+            case PUSH_RELABEL:
+                new PushRelabel(net).maxFlow();
+                break;
+            case PARALLEL_PUSH_RELABEL:
+                new ParallelPushRelabel(net).maxFlow();
+                break;
+            default:
+                if (rebuildResidual) {
+                    augmentWithRebuiltResidual();
+                }
+                else {
+                    augmentInPlace();
                 }
-            }
         }
+    }
 
+    /**
+     * Augments the flow until no augmenting path exists,
+     * building a new residual graph for every augmenting path.
+     */
+    private void augmentWithRebuiltResidual() throws Exception {
+        long newFlow;
+        SearchState state = new SearchState(net.getNumVertices()); // shared by every residual graph
         for(;;){ // while an augmenting path exists
-            ResidualGraph resG = new ResidualGraph(net); // construct the residual graph
-            LinkedList<Edge> augmPath = resG.findAugmentingPath();
-            if (augmPath == null) { // if there is no augm path, then we have found the max flow
+            startPhase(SolverPhase.RESIDUAL_BUILD);
+            ResidualGraph resG = new ResidualGraph(net, state); // construct the residual graph
+            finishPhase(SolverPhase.RESIDUAL_BUILD);
+            resG.setListener(listener);
+            int length = resG.findAugmentingPath();
+            if (length == 0) { // if there is no augm path, then we have found the max flow
                 break;
             }
             else {
-                newFlow = minC(augmPath); // the minimum of the cap of all edges in the augm path
-                for (int i = 0; i < augmPath.size(); i++) {
+                newFlow = minC(resG, length); // the minimum of the cap of all edges in the augm path
+                for (int i = 0; i < length; i++) {
                     // set the corresponding edges with the new flow:
-                    net.updateFlow(augmPath.get(i),newFlow);
+                    net.updateFlow(resG.getNetworkArc(resG.getPathEdge(i)), newFlow);
                 }
+                countAugmentation(length, newFlow);
             }
         }
-	}
+    }
+
+    /**
+     * Augments the flow until no augmenting path exists, reading residual capacities
+     * directly from net so that nothing is rebuilt or allocated between augmentations.
+     */
+    private void augmentInPlace() {
+        LiveResidualGraph resG = new LiveResidualGraph(net);
+        resG.setListener(listener);
+        resG.setParallel(parallelSearch);
+        for(;;){ // while an augmenting path exists
+            int length = resG.findAugmentingPath();
+            if (length == 0) { // if there is no augm path, then we have found the max flow
+                break;
+            }
+            long newFlow = minC(resG, length); // the minimum residual cap along the augm path
+            for (int i = 0; i < length; i++) {
+                net.updateFlow(resG.getPathArc(i), newFlow);
+            }
+            countAugmentation(length, newFlow);
+        }
+    }
+
+    /**
+     * Capacity scaling: augments only along paths whose arcs all have residual capacity
+     * at least delta, starting with the largest power of two not above the largest edge
+     * capacity and halving delta whenever no such path is left. This takes O(m log U)
+     * augmentations, however large the value of the flow.
+     */
+    private void augmentWithScaling() {
+        long maxCap = 0;
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            maxCap = Math.max(maxCap, net.getEdgeCap(e));
+        }
+        LiveResidualGraph resG = new LiveResidualGraph(net);
+        resG.setListener(listener);
+        resG.setParallel(parallelSearch);
+        for (long delta = Long.highestOneBit(maxCap); delta >= 1; delta /= 2) {
+            for(;;){ // while an augmenting path of width delta exists
+                int length = resG.findAugmentingPath(delta);
+                if (length == 0) {
+                    break;
+                }
+                long newFlow = minC(resG, length);
+                for (int i = 0; i < length; i++) {
+                    net.updateFlow(resG.getPathArc(i), newFlow);
+                }
+                countAugmentation(length, newFlow);
+            }
+        }
+    }
+
+    /**
+     * Augments the flow along the augmenting path with the largest bottleneck capacity
+     * until no augmenting path exists. Each path moves as much flow as any single path
+     * can, which on networks with large capacities needs far fewer augmentations than
+     * shortest paths.
+     */
+    private void augmentWidest() {
+        LiveResidualGraph resG = new LiveResidualGraph(net);
+        resG.setListener(listener);
+        for(;;){ // while an augmenting path exists
+            int length = resG.findWidestPath();
+            if (length == 0) {
+                break;
+            }
+            long newFlow = minC(resG, length);
+            for (int i = 0; i < length; i++) {
+                net.updateFlow(resG.getPathArc(i), newFlow);
+            }
+            countAugmentation(length, newFlow);
+        }
+    }
+
+    /**
+     * Counts an augmentation along a path and tells the listener about it.
+     * @param length the number of arcs on the path
+     * @param newFlow the flow pushed along it
+     */
+    private void countAugmentation(int length, long newFlow) {
+        numAugmentations++;
+        if (listener != null) {
+            listener.augmented(length, newFlow);
+        }
+    }
 
     /**
-     * Finds the minimum flow of all edges specified in the @param
+     * Tells the listener, if any, that a phase has started.
+     * @param phase the phase
+     */
+    private void startPhase(SolverPhase phase) {
+        if (listener != null) {
+            listener.phaseStarted(phase);
+        }
+    }
+
+    /**
+     * Tells the listener, if any, that a phase has finished.
+     * @param phase the phase
+     */
+    private void finishPhase(SolverPhase phase) {
+        if (listener != null) {
+            listener.phaseFinished(phase);
+        }
+    }
+
+    /**
+     * Finds the minimum residual capacity of the arcs of the augmenting path
+     * last found by resG, which has the given length.
      * */
-    private int minC(LinkedList<Edge> edges) {
-        int minCapacity = edges.get(0).getCap();
-        for (int i = 1; i < edges.size(); i++) {
-            int currCapacity = edges.get(i).getCap();
+    private long minC(LiveResidualGraph resG, int length) {
+        long minCapacity = net.getResidualCap(resG.getPathArc(0));
+        for (int i = 1; i < length; i++) {
+            long currCapacity = net.getResidualCap(resG.getPathArc(i));
             if (currCapacity < minCapacity) {
                 minCapacity = currCapacity;
             }
@@ -121,17 +429,68 @@ public class FordFulk {
         return minCapacity;
     }
 
+    /**
+     * Finds the minimum capacity of the residual edges of the augmenting path
+     * last found in resG, which has the given length.
+     * */
+    private long minC(ResidualGraph resG, int length) {
+        long minCapacity = resG.getEdgeCap(resG.getPathEdge(0));
+        for (int i = 1; i < length; i++) {
+            long currCapacity = resG.getEdgeCap(resG.getPathEdge(i));
+            if (currCapacity < minCapacity) {
+                minCapacity = currCapacity;
+            }
+        }
+        return minCapacity;
+    }
+
+	/**
+	 * Print a minimum cut of the maximum flow found.
+	 * It goes to standard error unless the flow is written as text.
+	 */
+	public void printMinCut() {
+		PrintStream out = System.err; // apart from the records of the other formats
+		if (outputFormat == OutputFormat.TEXT) {
+			out = System.out;
+			out.println(); // after the flow
+		}
+		net.printMinCut(new MinCut(net), out);
+	}
+
 	/**
 	 * Print the results of the execution of the Ford-Fulkerson algorithm.
+	 * The flow is streamed through a buffered writer; for CSV and JSON_LINES only its
+	 * records are written, and an invalid flow is reported on standard error.
 	 */
-	public void printResults() {
-		if (net.isFlow()) {
-			System.out.println("The assignment is a valid flow");
-			System.out.println("A maximum flow has value: " + net.getValue());
-			System.out.println("The flows along the edges are as follows:");
-			net.printFlow();
+	public void printResults() throws IOException {
+		System.out.flush(); // whatever went through System.out must come out first
+		ByteWriter out = ByteWriter.toStandardOutput();
+		printResults(out);
+		out.flush();
+	}
+
+	/**
+	 * Write the results of the execution of the Ford-Fulkerson algorithm, as printResults
+	 * does, to the given writer.
+	 * @param out the writer, which is left unflushed
+	 */
+	public void printResults(ByteWriter out) throws IOException {
+		startPhase(SolverPhase.VALIDATE);
+		boolean valid = net.isFlow(parallelCheck);
+		finishPhase(SolverPhase.VALIDATE);
+		if (valid) {
+			startPhase(SolverPhase.OUTPUT);
+			if (outputFormat == OutputFormat.TEXT) {
+				out.println("The assignment is a valid flow");
+				out.print("A maximum flow has value: ").print(net.getValue()).println();
+				out.println("The flows along the edges are as follows:");
+			}
+			net.writeFlow(out, outputFormat);
+			finishPhase(SolverPhase.OUTPUT);
 		}
+		else if (outputFormat == OutputFormat.TEXT)
+			out.println("The assignment is not a valid flow");
 		else
-			System.out.println("The assignment is not a valid flow");
+			System.err.println("The assignment is not a valid flow");
 	}
 }
\ No newline at end of file
@@ -1,21 +1,104 @@
+import networkFlow.*;
+
 public class Main {
 	
 	/**
 	 * The main method.
-	 * @param args the name of the file containing the input network.
+	 * @param args the name of the file containing the input network,
+	 * optionally followed by --algorithm=ek|dinic|scaling|fattest|push-relabel|parallel-push-relabel|auto
+	 * to choose the max-flow algorithm and --rebuild-residual to build a new residual graph
+	 * for every augmenting path. With --min-cut a minimum cut is printed as well, and
+	 * with --parallel-check the flow is validated in parallel. With --parallel-bfs augmenting
+	 * paths are searched for in parallel. With --algorithm=auto the algorithm is chosen from
+	 * an analysis of the network, whose measurements and choice are printed on standard
+	 * error. With --format=csv|jsonl the flow is written as machine-readable records instead
+	 * of text, and the minimum cut, if asked for, goes to standard error. With --stats the
+	 * time of every phase, the work of the searches and the number of augmenting paths are
+	 * summarised on standard error.
+	 * When the JVM runs with -XX:StartFlightRecording, Flight Recorder events are emitted for
+	 * the phases and sampled augmentations.
+	 * Given --batch=PATH instead of a file name, every file in the directory or manifest
+	 * PATH is solved, several at once; see Batch for the options.
 	 */
 	public static void main(String args[]) throws Exception {
 
+		if (args[0].startsWith("--batch=")) {
+			System.exit(Batch.run(args));
+		}
+
 		// construct FordFulk object passing filename to constructor
 		FordFulk fordFulk = new FordFulk (args[0]); // filename
 
+		// any further arguments are options
+		boolean printMinCut = false;
+		SolverStats stats = null;
+		if (JfrListener.isAvailable()) { // a flight recording was started with the JVM
+			fordFulk.setListener(new JfrListener());
+		}
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--rebuild-residual")) {
+				fordFulk.setRebuildResidual(true);
+			}
+			else if (args[i].equals("--min-cut")) {
+				printMinCut = true;
+			}
+			else if (args[i].equals("--stats")) {
+				stats = new SolverStats();
+				fordFulk.setListener(SolverListener.both(fordFulk.getListener(), stats));
+			}
+			else if (args[i].equals("--parallel-bfs")) {
+				fordFulk.setParallelSearch(true);
+			}
+			else if (args[i].equals("--parallel-check")) {
+				fordFulk.setParallelCheck(true);
+			}
+			else if (args[i].startsWith("--format=")) {
+				OutputFormat f = OutputFormat.byName(args[i].substring("--format=".length()));
+				if (f == null) {
+					System.err.println("Unknown format: " + args[i]);
+					System.exit(1);
+				}
+				fordFulk.setOutputFormat(f);
+			}
+			else if (args[i].startsWith("--algorithm=")) {
+				Algorithm a = Algorithm.byName(args[i].substring("--algorithm=".length()));
+				if (a == null) {
+					System.err.println("Unknown algorithm: " + args[i]);
+					System.exit(1);
+				}
+				fordFulk.setAlgorithm(a);
+			}
+			else {
+				System.err.println("Unknown option: " + args[i]);
+				System.exit(1);
+			}
+		}
+
 		// read network from file given by first argument
 		fordFulk.readNetworkFromFile(); 
 
 		// apply Ford-Fulkerson algorithm to constructed network
 		fordFulk.fordFulkerson();
+		reportAnalysis(fordFulk);
 
 		// check whether the assignment is a valid flow
 		fordFulk.printResults();
+		if (printMinCut) {
+			fordFulk.printMinCut();
+		}
+		if (stats != null) {
+			stats.print(System.err);
+		}
+	}
+
+	/**
+	 * Reports on standard error what the network was measured to be and the algorithm
+	 * chosen for it, if the algorithm was chosen automatically.
+	 * @param fordFulk the FordFulk object that has found the flow
+	 */
+	private static void reportAnalysis(FordFulk fordFulk) {
+		if (fordFulk.getAnalysis() != null) {
+			fordFulk.getAnalysis().print(System.err);
+		}
 	}
 }
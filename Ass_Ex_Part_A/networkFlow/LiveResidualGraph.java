@@ -0,0 +1,227 @@
+package networkFlow;
+import java.util.*;
+
+/**
+ * The Class LiveResidualGraph.
+ * Represents the residual graph corresponding to a given network without copying it.
+ * The residual capacity of every arc is read from the capacities and flows of the network
+ * itself (cap - flow along an edge, flow against it), so the flow can be augmented over
+ * and over without building a new graph for every augmenting path. The search arrays are
+ * reused too, so once they exist a search allocates nothing.
+ */
+public class LiveResidualGraph {
+
+    /** The network whose residual graph this is. */
+    private Network net;
+
+    /** The reusable queue, predecessor arcs and path of the searches. */
+    private SearchState state;
+
+    /** width[v] is the largest bottleneck of a path found so far from the source to v;
+     *  allocated on the first widest path search and valid only for reached vertices. */
+    private long[] width;
+
+    /** settled[v] equals the current epoch once the widest path to v is known. */
+    private int[] settled;
+
+    /** The priority queue of the widest path search. */
+    private RadixHeap heap;
+
+    /** Told about every search, or null. */
+    private SolverListener listener;
+
+    /** The parallel search used in place of the breadth first search, or null. */
+    private ParallelBfs parallel;
+
+    /**
+     * Instantiates a new LiveResidualGraph object.
+     * @param net the network
+     */
+    public LiveResidualGraph(Network net) {
+        this.net = net;
+        state = new SearchState(net.getNumVertices());
+    }
+
+    /**
+     * Sets the listener told how much of the graph every search scanned.
+     * @param listener the listener, or null
+     */
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Chooses between searching for paths breadth first on this thread (the default) and
+     * level by level in parallel with ParallelBfs, for very large networks. The widest
+     * path search is not affected.
+     * @param useParallel true to search in parallel
+     */
+    public void setParallel(boolean useParallel) {
+        parallel = useParallel ? new ParallelBfs(net, state.getPath()) : null;
+    }
+
+    /**
+     * Find an augmenting path if one exists.
+     * Does a breadth first search from the source over arcs with positive residual
+     * capacity; if the sink is reached the arcs of the path are stored in order from
+     * the source and can be read with getPathArc.
+     * @return the number of arcs in the augmenting path, or 0 if there is none
+     */
+    public int findAugmentingPath() {
+        return findAugmentingPath(1);
+    }
+
+    /**
+     * Find an augmenting path that only uses arcs with residual capacity at least minCap,
+     * as used by capacity scaling; otherwise the same as findAugmentingPath().
+     * @param minCap the smallest residual capacity an arc on the path may have
+     * @return the number of arcs in the augmenting path, or 0 if there is none
+     */
+    public int findAugmentingPath(long minCap) {
+        return findPath(net.getSource().getLabel(), net.getSink().getLabel(), minCap);
+    }
+
+    /**
+     * Find a shortest path from one vertex to another over arcs with residual capacity at
+     * least minCap, as used to move flow around when the network is edited; the path can
+     * be read with getPathArc as for findAugmentingPath.
+     * @param from the label of the first vertex of the path
+     * @param to the label of the last vertex of the path, other than from
+     * @param minCap the smallest residual capacity an arc on the path may have
+     * @return the number of arcs in the path, or 0 if there is none
+     */
+    public int findPath(int from, int to, long minCap) {
+        if (parallel != null) {
+            int length = parallel.findPath(from, to, minCap);
+            if (listener != null) {
+                listener.searchFinished((int) parallel.getVerticesScanned(), (int) parallel.getArcsScanned(), length);
+            }
+            return length;
+        }
+        int scanned = 0;
+        int arcs = 0;
+        state.begin();
+        state.reach(from, -1);
+        while (state.hasNext() && !state.isReached(to)) {
+            int u = state.next();
+            scanned++;
+            arcs += net.getArcEnd(u) - net.getArcStart(u);
+            for (int a = net.getArcStart(u); a < net.getArcEnd(u); a++) {
+                int v = net.getArcTarget(a);
+                if (!state.isReached(v) && net.getResidualCap(a) >= minCap) {
+                    state.reach(v, a);
+                }
+            }
+        }
+        // if we didn't manage to reach the end of the path there is none
+        int length = state.isReached(to) ? tracePath(from, to) : 0;
+        if (listener != null) {
+            listener.searchFinished(scanned, arcs, length);
+        }
+        return length;
+    }
+
+    /**
+     * Find the augmenting path with the largest bottleneck (the "fattest" path) if one exists.
+     * This is Dijkstra's algorithm with the width of a path, the smallest residual capacity on
+     * it, in place of its length. Widths only decrease as vertices are settled, so the queue is
+     * a radix heap keyed by Long.MAX_VALUE minus the width. The path can be read with
+     * getPathArc as for findAugmentingPath.
+     * @return the number of arcs in the augmenting path, or 0 if there is none
+     */
+    public int findWidestPath() {
+        int sourceLabel = net.getSource().getLabel();
+        int sinkLabel = net.getSink().getLabel();
+        if (width == null) {
+            width = new long[net.getNumVertices()];
+            settled = new int[net.getNumVertices()];
+            heap = new RadixHeap();
+        }
+        state.begin();
+        int epoch = state.getEpoch();
+        if (epoch == 1) { // the first search, or the epochs have wrapped around
+            Arrays.fill(settled, 0);
+        }
+        int scanned = 0;
+        int arcs = 0;
+        heap.clear();
+        state.mark(sourceLabel, -1);
+        width[sourceLabel] = Long.MAX_VALUE;
+        heap.push(sourceLabel, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.pop();
+            if (settled[u] == epoch || heap.lastKey() != Long.MAX_VALUE - width[u]) {
+                continue; // a stale entry, u was pushed again with a wider path
+            }
+            settled[u] = epoch;
+            if (u == sinkLabel) {
+                break;
+            }
+            scanned++;
+            arcs += net.getArcEnd(u) - net.getArcStart(u);
+            for (int a = net.getArcStart(u); a < net.getArcEnd(u); a++) {
+                int v = net.getArcTarget(a);
+                long w = Math.min(width[u], net.getResidualCap(a));
+                if (w > 0 && settled[v] != epoch && (!state.isReached(v) || w > width[v])) {
+                    width[v] = w;
+                    state.mark(v, a);
+                    heap.push(v, Long.MAX_VALUE - w);
+                }
+            }
+        }
+        // if we didn't manage to reach the sink there is no augmenting path
+        int length = state.isReached(sinkLabel) ? tracePath(sourceLabel, sinkLabel) : 0;
+        if (listener != null) {
+            listener.searchFinished(scanned, arcs, length);
+        }
+        return length;
+    }
+
+    /**
+     * Stores the arcs of the path to the sink found by the last search in the path
+     * array of the search state, in order from the source.
+     * @param sourceLabel the label of the first vertex of the path
+     * @param sinkLabel the label of the last vertex of the path
+     * @return the number of arcs on the path
+     */
+    private int tracePath(int sourceLabel, int sinkLabel) {
+        // count the arcs on the path, then fill them in backwards from the sink
+        int length = 0;
+        for (int v = sinkLabel; v != sourceLabel; v = tailOf(state.getPred(v))) {
+            length++;
+        }
+        int[] path = state.getPath();
+        int i = length;
+        for (int v = sinkLabel; v != sourceLabel; v = tailOf(state.getPred(v))) {
+            path[--i] = state.getPred(v);
+        }
+        return length;
+    }
+
+    /**
+     * Gets the label of the vertex that arc a leaves.
+     * @param a the arc
+     * @return the tail of a
+     */
+    private int tailOf(int a) {
+        return net.getArcTarget(net.getReverseArc(a));
+    }
+
+    /**
+     * Gets the i-th arc of the last augmenting path found.
+     * @param i the position on the path, 0 being the arc leaving the source
+     * @return the arc
+     */
+    public int getPathArc(int i) {
+        return state.getPath()[i];
+    }
+
+    /**
+     * Gets the arcs of the last augmenting path found, in order from the source, in the
+     * first entries of the returned array. The array is reused by the next search.
+     * @return the path array
+     */
+    public int[] getPath() {
+        return state.getPath();
+    }
+}
@@ -0,0 +1,240 @@
+package networkFlow;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The Class NetworkAnalyser.
+ * Measures the shape of a network in one pass over its edges and one breadth first search
+ * from the source, and from that chooses the maximum flow algorithm expected to be fastest
+ * on it, so that Algorithm.AUTO can stand in for a choice made by hand.
+ *
+ * The choice was tuned on generated instances: the shortest augmenting path algorithm for
+ * small networks, where every algorithm finishes at once and it has the least to set up;
+ * Dinic's algorithm for layered networks whose source edges have capacity 1, such as the
+ * Student/Project/Lecturer networks, and for networks of mostly unit capacities, where it
+ * needs few phases; and push-relabel otherwise, on several threads only for very large
+ * networks with enough of them to go round. Algorithms that minimise cost are never chosen,
+ * since they answer a different question.
+ */
+public class NetworkAnalyser {
+
+    /** Networks with at most this many edges count as small. */
+    private static final int SMALL_EDGES = 1 << 12;
+
+    /** Networks in which at least this fraction of the edges have capacity 1 count as unit capacity networks. */
+    private static final double UNIT_FRACTION = 0.9;
+
+    /** The parallel push-relabel algorithm is only chosen with at least this many threads ... */
+    private static final int PARALLEL_THREADS = 8;
+
+    /** ... and at least this many edges, below which its rounds cost more than they save. */
+    private static final int PARALLEL_EDGES = 1 << 21;
+
+    /** Marks a vertex the breadth first search has not reached. */
+    private static final int UNREACHED = -1;
+
+    /** The numbers of vertices and edges of the network. */
+    private int numVertices, numEdges;
+
+    /** The largest capacity of an edge. */
+    private long maxCap;
+
+    /** The number of edges of capacity 1. */
+    private int unitEdges;
+
+    /** The number of edges on a shortest path from the source to the sink, or -1 if there is none. */
+    private int depth;
+
+    /** True if every edge leads from one breadth first level to the next and every source edge has capacity 1. */
+    private boolean layered;
+
+    /** The number of threads the common fork-join pool runs parallel algorithms on. */
+    private int threads;
+
+    /** The algorithm chosen. */
+    private Algorithm choice;
+
+    /** Why it was chosen. */
+    private String reason;
+
+    /**
+     * Instantiates a new NetworkAnalyser object and analyses the network.
+     * @param net the network
+     */
+    public NetworkAnalyser(Network net) {
+        numVertices = net.getNumVertices();
+        numEdges = net.getNumEdges();
+        threads = ForkJoinPool.getCommonPoolParallelism();
+        for (int e = 0; e < numEdges; e++) {
+            long cap = net.getEdgeCap(e);
+            maxCap = Math.max(maxCap, cap);
+            if (cap == 1) {
+                unitEdges++;
+            }
+        }
+        analyseLevels(net);
+        choose();
+    }
+
+    /**
+     * Finds the breadth first levels of the vertices from the source, over the edges of
+     * positive capacity, and from them the depth of the sink and whether the network is layered.
+     * @param net the network
+     */
+    private void analyseLevels(Network net) {
+        int source = net.getSource().getLabel();
+        int sink = net.getSink().getLabel();
+        int[] level = new int[numVertices];
+        int[] queue = new int[numVertices];
+        Arrays.fill(level, UNREACHED);
+        level[source] = 0;
+        queue[0] = source;
+        int head = 0, tail = 1;
+        layered = true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = net.getArcStart(u), end = net.getArcEnd(u); a < end; a++) {
+                int e = net.getArcEdge(a);
+                if (!net.isForwardArc(a) || net.getEdgeCap(e) == 0) {
+                    continue;
+                }
+                int v = net.getArcTarget(a);
+                if (level[v] == UNREACHED) {
+                    level[v] = level[u] + 1;
+                    queue[tail++] = v;
+                }
+                else if (level[v] != level[u] + 1) {
+                    layered = false; // an edge back, within a level or past the next
+                }
+                if (u == source && net.getEdgeCap(e) != 1) {
+                    layered = false;
+                }
+            }
+        }
+        depth = level[sink];
+        layered &= depth > 1;
+    }
+
+    /**
+     * Chooses the algorithm from the measurements.
+     */
+    private void choose() {
+        if (numEdges <= SMALL_EDGES) {
+            choice = Algorithm.EDMONDS_KARP;
+            reason = "small network";
+        }
+        else if (layered) {
+            choice = Algorithm.DINIC;
+            reason = "layered network with unit capacity source edges";
+        }
+        else if (getUnitFraction() >= UNIT_FRACTION) {
+            choice = Algorithm.DINIC;
+            reason = "mostly unit capacities";
+        }
+        else if (threads >= PARALLEL_THREADS && numEdges >= PARALLEL_EDGES) {
+            choice = Algorithm.PARALLEL_PUSH_RELABEL;
+            reason = "large network with " + threads + " threads";
+        }
+        else {
+            choice = Algorithm.PUSH_RELABEL;
+            reason = "general capacities";
+        }
+    }
+
+    /**
+     * Gets the algorithm chosen for the network.
+     * @return the algorithm, never Algorithm.AUTO
+     */
+    public Algorithm getChoice() {
+        return choice;
+    }
+
+    /**
+     * Gets a short description of why the algorithm was chosen.
+     * @return the reason
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Gets the number of vertices of the network.
+     * @return the number of vertices
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Gets the number of edges of the network.
+     * @return the number of edges
+     */
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Gets the density of the network: its number of edges over the number of ordered
+     * pairs of distinct vertices.
+     * @return the density, between 0 and 1 for a network without parallel edges
+     */
+    public double getDensity() {
+        return numVertices < 2 ? 0 : numEdges / ((double) numVertices * (numVertices - 1));
+    }
+
+    /**
+     * Gets the average number of edges leaving a vertex.
+     * @return the average out-degree
+     */
+    public double getAverageDegree() {
+        return numVertices == 0 ? 0 : (double) numEdges / numVertices;
+    }
+
+    /**
+     * Gets the largest capacity of an edge.
+     * @return the largest capacity
+     */
+    public long getMaxCap() {
+        return maxCap;
+    }
+
+    /**
+     * Gets the fraction of the edges that have capacity 1.
+     * @return the fraction, 0 if there are no edges
+     */
+    public double getUnitFraction() {
+        return numEdges == 0 ? 0 : (double) unitEdges / numEdges;
+    }
+
+    /**
+     * Gets the number of edges on a shortest path from the source to the sink.
+     * @return the depth of the sink, or -1 if it cannot be reached
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns true if every edge leads from one breadth first level to the next and every
+     * source edge has capacity 1, as in the Student/Project/Lecturer networks.
+     * @return true, if the network is layered
+     */
+    public boolean isLayered() {
+        return layered;
+    }
+
+    /**
+     * Prints the measurements and the algorithm chosen from them.
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+        out.println("Network: " + numVertices + " vertices, " + numEdges + " edges, density "
+                + String.format("%.3g", getDensity()) + ", average degree " + String.format("%.2f", getAverageDegree()));
+        out.println("Capacities: largest " + maxCap + ", " + String.format("%.1f", 100 * getUnitFraction())
+                + "% of the edges have capacity 1");
+        out.println("Shape: " + (layered ? "layered" : "not layered") + ", "
+                + (depth == UNREACHED ? "sink not reachable from the source" : "sink " + depth + " edges from the source"));
+        out.println("Algorithm chosen: " + choice.getName() + " (" + reason + ")");
+    }
+}
@@ -0,0 +1,234 @@
+package networkFlow;
+import java.util.*;
+
+/**
+ * The Class PushRelabel.
+ * Computes a maximum flow with the FIFO push-relabel algorithm. Active vertices (those
+ * with excess) are discharged in first-in first-out order; heights are recomputed every
+ * so often by a global relabel, a breadth first search backwards from the sink, and the
+ * gap heuristic lifts every vertex above an empty height out of reach of the sink at once.
+ *
+ * The first phase computes a maximum preflow; the second phase returns the excess that
+ * could not reach the sink to the source, leaving a valid flow in the network.
+ */
+public class PushRelabel {
+
+    /** The network on which the algorithm is run. */
+    private Network net;
+
+    /** The number of vertices in the network. */
+    private int n;
+
+    /** height[v] is the height (distance label) of v. */
+    private int[] height;
+
+    /** excess[v] is the flow into v minus the flow out of v. */
+    private long[] excess;
+
+    /** currentArc[v] is the next arc of v to try when discharging v. */
+    private int[] currentArc;
+
+    /** count[h] is the number of vertices with height h, used by the gap heuristic. */
+    private int[] count;
+
+    /** The FIFO queue of active vertices, stored as a ring. */
+    private int[] queue;
+
+    /** The positions of the first and one past the last vertex of the queue, and its size. */
+    private int head, tail, size;
+
+    /** The breadth first search queue used by the global relabel. */
+    private int[] bfs;
+
+    /** inQueue[v] is true if v is in the queue. */
+    private boolean[] inQueue;
+
+    /** The number of relabels since the last global relabel. */
+    private int relabelsSinceGlobal;
+
+    /**
+     * Instantiates a new PushRelabel object.
+     * @param net the network
+     */
+    public PushRelabel(Network net) {
+        this.net = net;
+        n = net.getNumVertices();
+        height = new int[n];
+        excess = new long[n];
+        currentArc = new int[n];
+        count = new int[2 * n + 1];
+        queue = new int[n];
+        inQueue = new boolean[n];
+        bfs = new int[n];
+    }
+
+    /**
+     * Increases the flow of the network to a maximum flow,
+     * starting from whatever valid flow it currently holds.
+     */
+    public void maxFlow() {
+        int sourceLabel = net.getSource().getLabel();
+        int sinkLabel = net.getSink().getLabel();
+
+        // saturate every arc leaving the source
+        for (int a = net.getArcStart(sourceLabel); a < net.getArcEnd(sourceLabel); a++) {
+            long c = net.getResidualCap(a);
+            if (c > 0) {
+                net.updateFlow(a, c);
+                excess[net.getArcTarget(a)] += c;
+                excess[sourceLabel] -= c;
+            }
+        }
+
+        // phase 1: move as much excess as possible to the sink
+        discharge(sinkLabel, sourceLabel, true);
+        // phase 2: return the excess that cannot reach the sink to the source
+        discharge(sourceLabel, sinkLabel, false);
+    }
+
+    /**
+     * Discharges active vertices until none is left, moving excess towards target.
+     * @param target the terminal that excess is moved to
+     * @param other the other terminal, which is never pushed to
+     * @param useGap true to stop at height n and apply the gap heuristic (first phase)
+     */
+    private void discharge(int target, int other, boolean useGap) {
+        globalRelabel(target, other);
+        for (int v = 0; v < n; v++) {
+            if (excess[v] > 0 && v != target && v != other) {
+                enqueue(v);
+            }
+        }
+        while (size > 0) {
+            int u = dequeue();
+            if (useGap && height[u] >= n) {
+                continue; // u cannot reach the sink; phase 2 deals with its excess
+            }
+            int end = net.getArcEnd(u);
+            while (excess[u] > 0) {
+                int a = currentArc[u];
+                if (a == end) {
+                    relabel(u, other, useGap);
+                    if (useGap && height[u] >= n) {
+                        break;
+                    }
+                    if (relabelsSinceGlobal >= n) {
+                        globalRelabel(target, other);
+                        if (useGap && height[u] >= n) {
+                            break;
+                        }
+                    }
+                    continue;
+                }
+                int v = net.getArcTarget(a);
+                long c = net.getResidualCap(a);
+                if (c > 0 && v != other && height[u] == height[v] + 1) {
+                    long delta = Math.min(excess[u], c);
+                    net.updateFlow(a, delta);
+                    excess[u] -= delta;
+                    excess[v] += delta;
+                    if (v != target && !inQueue[v]) {
+                        enqueue(v);
+                    }
+                }
+                else {
+                    currentArc[u] = a + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Raises u to one above its lowest neighbour over an arc with residual capacity.
+     * In the first phase, if u was the last vertex at its old height every vertex above
+     * that gap (and below n) is cut off from the sink and lifted to n.
+     * @param u the vertex label
+     * @param other the terminal that is never pushed to
+     * @param useGap true to apply the gap heuristic
+     */
+    private void relabel(int u, int other, boolean useGap) {
+        relabelsSinceGlobal++;
+        int oldHeight = height[u];
+        int newHeight = 2 * n;
+        for (int a = net.getArcStart(u); a < net.getArcEnd(u); a++) {
+            int v = net.getArcTarget(a);
+            if (v != other && net.getResidualCap(a) > 0 && height[v] + 1 < newHeight) {
+                newHeight = height[v] + 1;
+            }
+        }
+        if (useGap && newHeight > n) {
+            newHeight = n;
+        }
+        count[oldHeight]--;
+        height[u] = newHeight;
+        count[newHeight]++;
+        currentArc[u] = net.getArcStart(u);
+
+        if (useGap && count[oldHeight] == 0 && oldHeight < n) {
+            for (int v = 0; v < n; v++) {
+                if (height[v] > oldHeight && height[v] < n) {
+                    count[height[v]]--;
+                    height[v] = n;
+                    count[n]++;
+                    currentArc[v] = net.getArcStart(v);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets every height to the exact distance to target in the residual graph, found by
+     * a breadth first search backwards from target. Vertices that cannot reach target
+     * get height n. The other terminal keeps height n and is never searched through.
+     * @param target the terminal distances are measured to
+     * @param other the other terminal
+     */
+    private void globalRelabel(int target, int other) {
+        relabelsSinceGlobal = 0;
+        Arrays.fill(height, n);
+        Arrays.fill(count, 0);
+        height[target] = 0;
+        int first = 0;
+        int last = 0;
+        bfs[last++] = target;
+        while (first < last) {
+            int v = bfs[first++];
+            for (int a = net.getArcStart(v); a < net.getArcEnd(v); a++) {
+                int u = net.getArcTarget(a);
+                // u can move flow to v if the arc from u back to v has residual capacity
+                if (height[u] == n && u != target && u != other
+                        && net.getResidualCap(net.getReverseArc(a)) > 0) {
+                    height[u] = height[v] + 1;
+                    bfs[last++] = u;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            count[height[v]]++;
+            currentArc[v] = net.getArcStart(v);
+        }
+    }
+
+    /**
+     * Adds v to the back of the queue of active vertices.
+     * @param v the vertex label
+     */
+    private void enqueue(int v) {
+        queue[tail] = v;
+        tail = (tail + 1) % n;
+        size++;
+        inQueue[v] = true;
+    }
+
+    /**
+     * Removes the vertex at the front of the queue of active vertices.
+     * @return the vertex label
+     */
+    private int dequeue() {
+        int v = queue[head];
+        head = (head + 1) % n;
+        size--;
+        inQueue[v] = false;
+        return v;
+    }
+}
@@ -0,0 +1,215 @@
+package networkFlow;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+/**
+ * The Class ByteTokenizer.
+ * Reads the integers and Y/N flags of a network input file straight from the bytes of the
+ * file, without making a String per line or per token. The file is streamed through a
+ * fixed size buffer from a FileChannel, so files of any size are read in constant memory.
+ *
+ * Tokens are separated by spaces, tabs and the brackets '(' and ')'; lines end with '\n'
+ * and a '\r' before it is ignored, so the same reader serves all three file formats.
+ */
+public class ByteTokenizer implements Closeable {
+
+    /** The size of the read buffer in bytes. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** The channel the file is read from. */
+    private FileChannel channel;
+
+    /** The read buffer and its ByteBuffer view for the channel. */
+    private byte[] buf;
+    private ByteBuffer wrapped;
+
+    /** The position of the next unread byte in buf and one past the last valid byte. */
+    private int pos, limit;
+
+    /** The number of bytes read from the file so far. */
+    private long bytesRead;
+
+    /** The number of line ends passed so far. */
+    private int lines;
+
+    /**
+     * Opens the file with the given name for reading.
+     * @param filename the name of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public ByteTokenizer(String filename) throws IOException {
+        channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        buf = new byte[BUFFER_SIZE];
+        wrapped = ByteBuffer.wrap(buf);
+    }
+
+    /**
+     * Gets the next byte without consuming it.
+     * @return the next byte, or -1 at the end of the file
+     */
+    private int peek() throws IOException {
+        if (pos == limit) {
+            wrapped.clear();
+            int n = channel.read(wrapped);
+            if (n <= 0) {
+                return -1;
+            }
+            pos = 0;
+            limit = n;
+            bytesRead += n;
+        }
+        return buf[pos];
+    }
+
+    /**
+     * Returns true if b separates tokens within a line.
+     * @param b the byte
+     * @return true, if b is a separator
+     */
+    private static boolean isSeparator(int b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '(' || b == ')';
+    }
+
+    /**
+     * Skips separators and returns true if another token follows on the current line.
+     * @return true, if the current line has another token
+     * @throws IOException if the file cannot be read
+     */
+    public boolean hasNextOnLine() throws IOException {
+        int b = peek();
+        while (isSeparator(b)) {
+            pos++;
+            b = peek();
+        }
+        return b != '\n' && b != -1;
+    }
+
+    /**
+     * Skips blank lines and returns true if there is another line with a token on it.
+     * @return true, if another non-blank line follows
+     * @throws IOException if the file cannot be read
+     */
+    public boolean hasNextLine() throws IOException {
+        while (!hasNextOnLine()) {
+            if (peek() == -1) {
+                return false;
+            }
+            pos++; // the '\n'
+            lines++;
+        }
+        return true;
+    }
+
+    /**
+     * Skips the rest of the current line, including its line end.
+     * @throws IOException if the file cannot be read
+     */
+    public void nextLine() throws IOException {
+        int b = peek();
+        while (b != '\n' && b != -1) {
+            pos++;
+            b = peek();
+        }
+        if (b == '\n') {
+            pos++;
+            lines++;
+        }
+    }
+
+    /**
+     * Reads the next integer on the current line.
+     * @return the integer
+     * @throws IOException if the file cannot be read
+     * @throws NumberFormatException if the line has no further token or it is not an integer
+     */
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Integer out of range on line " + (lines + 1));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads the next integer on the current line as a long, for capacities too large for
+     * an int.
+     * @return the integer
+     * @throws IOException if the file cannot be read
+     * @throws NumberFormatException if the line has no further token or it is not an integer
+     */
+    public long nextLong() throws IOException {
+        if (!hasNextOnLine()) {
+            throw new NumberFormatException("Missing integer on line " + (lines + 1));
+        }
+        boolean negative = false;
+        int b = peek();
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            pos++;
+            b = peek();
+        }
+        if (b < '0' || b > '9') {
+            throw new NumberFormatException("Not an integer on line " + (lines + 1));
+        }
+        long value = 0;
+        while (b >= '0' && b <= '9') {
+            if (value > (Long.MAX_VALUE - (b - '0')) / 10) {
+                throw new NumberFormatException("Integer out of range on line " + (lines + 1));
+            }
+            value = value * 10 + (b - '0');
+            pos++;
+            b = peek();
+        }
+        if (b != '\n' && b != -1 && !isSeparator(b)) {
+            throw new NumberFormatException("Not an integer on line " + (lines + 1));
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads the next token on the current line as a flag.
+     * @return true if the token is exactly "Y", false for any other token
+     * @throws IOException if the file cannot be read
+     * @throws NumberFormatException if the line has no further token
+     */
+    public boolean nextFlag() throws IOException {
+        if (!hasNextOnLine()) {
+            throw new NumberFormatException("Missing Y/N flag on line " + (lines + 1));
+        }
+        int length = 0;
+        boolean yes = peek() == 'Y';
+        int b = peek();
+        while (b != '\n' && b != -1 && !isSeparator(b)) {
+            length++;
+            pos++;
+            b = peek();
+        }
+        return yes && length == 1;
+    }
+
+    /**
+     * Gets the number of bytes read from the file so far.
+     * @return the number of bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Gets the number of line ends passed so far.
+     * @return the number of lines read
+     */
+    public int getLinesRead() {
+        return lines;
+    }
+
+    /**
+     * Closes the file.
+     * @throws IOException if the file cannot be closed
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+}
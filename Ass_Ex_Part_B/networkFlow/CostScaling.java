@@ -0,0 +1,280 @@
+package networkFlow;
+import java.util.*;
+
+/**
+ * The Class CostScaling.
+ * Computes a maximum flow of least cost with Goldberg and Tarjan's cost scaling push-relabel
+ * algorithm. A maximum flow is found first by Dinic's algorithm, after which only its cost
+ * changes: flow is moved around cycles of the residual graph, so the value stays the same.
+ *
+ * Every vertex carries a price p, and the reduced cost of an arc from u to v is its cost plus
+ * p(u) minus p(v). A flow is eps-optimal if no residual arc has reduced cost below -eps.
+ * With costs multiplied by n + 1, a 1-optimal flow is optimal, because every cycle then has a
+ * reduced cost above minus the cost of one unit. Starting from eps equal to the largest cost,
+ * each phase divides eps by ALPHA and refines the flow: every residual arc of negative reduced
+ * cost is saturated, which leaves some vertices with more flow coming in than going out, and
+ * that excess is then pushed along arcs of negative reduced cost, lowering the price of a
+ * vertex by eps whenever it has no such arc left, until every excess is gone. Unlike
+ * successive shortest paths, a push moves as many units as the arc and the excess allow, and
+ * the number of phases grows only with the logarithm of the largest cost.
+ *
+ * Lowering prices one relabel at a time lets the excess wander, so as in Goldberg's
+ * implementation the prices are also updated globally, at the start of every phase and after
+ * every few relabels per vertex: a Dijkstra-like search from the vertices with too little
+ * flow coming in finds how many steps of eps every vertex is away from them, and each price
+ * is lowered by that many eps at once, which keeps the flow eps-optimal.
+ */
+public class CostScaling {
+
+    /** The factor by which eps is divided in every phase. */
+    private static final int ALPHA = 8;
+
+    /** The prices are updated globally after this many relabels per vertex. */
+    private static final int RELABELS_PER_UPDATE = 2;
+
+    /** The network on which the algorithm is run. */
+    private Network net;
+
+    /** cost[a] is the cost of arc a multiplied by n + 1, negated for an arc against its edge. */
+    private long[] cost;
+
+    /** price[v] is the price of v. */
+    private long[] price;
+
+    /** excess[v] is the flow into v minus the flow out of v, compared with the start of the phase. */
+    private long[] excess;
+
+    /** currentArc[v] is the next arc of v to try when pushing its excess. */
+    private int[] currentArc;
+
+    /** The ring queue of vertices with positive excess. */
+    private int[] queue;
+
+    /** The positions of the first and one past the last vertex of the queue. */
+    private int head, tail;
+
+    /** queued[v] is true while v is in the queue. */
+    private boolean[] queued;
+
+    /** The number of relabels since the prices were last updated globally. */
+    private int relabelsSinceUpdate;
+
+    /** steps[v] is the distance of v from the vertices with too little flow in steps of eps,
+     *  found by the last global price update. */
+    private int[] steps;
+
+    /** done[v] is true once the distance of v is final in the current global price update. */
+    private boolean[] done;
+
+    /** The queue of the global price update. */
+    private RadixHeap heap;
+
+    /**
+     * Instantiates a new CostScaling object.
+     * @param net the network, whose edge costs must not be negative
+     */
+    public CostScaling(Network net) {
+        this.net = net;
+        price = new long[net.getNumVertices()];
+        excess = new long[net.getNumVertices()];
+        currentArc = new int[net.getNumVertices()];
+        queue = new int[net.getNumVertices()];
+        queued = new boolean[net.getNumVertices()];
+        steps = new int[net.getNumVertices()];
+        done = new boolean[net.getNumVertices()];
+        heap = new RadixHeap();
+    }
+
+    /**
+     * Increases the flow of the network to a maximum flow, starting from whatever valid
+     * flow it currently holds, and then makes it a maximum flow of least cost.
+     */
+    public void maxFlow() {
+        new Dinic(net).maxFlow();
+        minimiseCost();
+    }
+
+    /**
+     * Makes the flow of the network one of least cost among the flows of the same value.
+     */
+    public void minimiseCost() {
+        int n = net.getNumVertices();
+        int numArcs = net.getArcEnd(n - 1);
+        cost = new long[numArcs];
+        long eps = 1;
+        for (int a = 0; a < numArcs; a++) {
+            long c = (long) net.getEdgeCost(net.getArcEdge(a)) * (n + 1);
+            cost[a] = net.isForwardArc(a) ? c : -c;
+            eps = Math.max(eps, c);
+        }
+        Arrays.fill(price, 0); // the zero prices make any flow eps-optimal for the largest cost
+        while (eps > 1) {
+            eps = Math.max(1, eps / ALPHA);
+            refine(eps);
+        }
+        cost = null;
+    }
+
+    /**
+     * Turns an ALPHA * eps-optimal flow into an eps-optimal flow of the same value.
+     * @param eps the new eps
+     */
+    private void refine(long eps) {
+        int n = net.getNumVertices();
+        Arrays.fill(excess, 0);
+        for (int u = 0; u < n; u++) {
+            for (int a = net.getArcStart(u); a < net.getArcEnd(u); a++) {
+                long r = net.getResidualCap(a);
+                if (r > 0 && reducedCost(a, u) < 0) {
+                    net.updateFlow(a, r);
+                    excess[u] -= r;
+                    excess[net.getArcTarget(a)] += r;
+                }
+            }
+        }
+        head = 0;
+        tail = 0;
+        for (int v = 0; v < n; v++) {
+            currentArc[v] = net.getArcStart(v);
+            queued[v] = false;
+            if (excess[v] > 0) {
+                enqueue(v);
+            }
+        }
+        if (head != tail) {
+            updatePrices(eps);
+        }
+        while (head != tail) {
+            int v = queue[head];
+            head = head + 1 == queue.length ? 0 : head + 1;
+            queued[v] = false;
+            discharge(v, eps);
+            if (relabelsSinceUpdate >= RELABELS_PER_UPDATE * n) {
+                updatePrices(eps);
+            }
+        }
+    }
+
+    /**
+     * Lowers every price by eps times the distance of its vertex from the vertices with
+     * too little flow coming in, where a residual arc from v to w is floor(c / eps) + 1
+     * steps long for its reduced cost c. Every reduced cost then stays at least -eps, and
+     * every vertex with excess has an arc of negative reduced cost on a path to such a
+     * vertex. The search stops once every vertex with excess has its distance, and the
+     * vertices it has not reached are lowered by the last distance found.
+     * @param eps the current eps
+     */
+    private void updatePrices(long eps) {
+        int n = net.getNumVertices();
+        heap.clear();
+        for (int v = 0; v < n; v++) {
+            done[v] = false;
+            steps[v] = Integer.MAX_VALUE;
+            if (excess[v] < 0) {
+                steps[v] = 0;
+                heap.push(v, 0);
+            }
+        }
+        int farthest = 0;
+        int active = tail >= head ? tail - head : tail + queue.length - head;
+        while (!heap.isEmpty() && active > 0) { // the vertices left over only get farthest
+            int w = heap.pop();
+            if (done[w] || heap.lastKey() != steps[w]) {
+                continue; // a stale entry
+            }
+            done[w] = true;
+            farthest = steps[w];
+            if (excess[w] > 0) {
+                active--;
+            }
+            // look at the residual arcs into w, which are the reverse arcs of those leaving it
+            for (int b = net.getArcStart(w); b < net.getArcEnd(w); b++) {
+                int v = net.getArcTarget(b);
+                int a = net.getReverseArc(b);
+                if (done[v] || net.getResidualCap(a) == 0) {
+                    continue;
+                }
+                long length = Math.floorDiv(reducedCost(a, v), eps) + 1;
+                int d = (int) Math.min(steps[w] + length, Integer.MAX_VALUE - 1);
+                if (d < steps[v]) {
+                    steps[v] = d;
+                    heap.push(v, d);
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            price[v] -= eps * (done[v] ? steps[v] : farthest);
+            currentArc[v] = net.getArcStart(v);
+        }
+        relabelsSinceUpdate = 0;
+    }
+
+    /**
+     * Pushes the excess of v along arcs of negative reduced cost, relabelling v whenever
+     * none is left, until v has no excess.
+     * @param v the vertex label
+     * @param eps the current eps
+     */
+    private void discharge(int v, long eps) {
+        int end = net.getArcEnd(v);
+        while (excess[v] > 0) {
+            if (currentArc[v] == end) {
+                relabel(v, eps);
+                currentArc[v] = net.getArcStart(v);
+            }
+            int a = currentArc[v];
+            long r = net.getResidualCap(a);
+            if (r > 0 && reducedCost(a, v) < 0) {
+                int w = net.getArcTarget(a);
+                long delta = Math.min(excess[v], r);
+                net.updateFlow(a, delta);
+                excess[v] -= delta;
+                excess[w] += delta;
+                if (excess[w] > 0 && !queued[w]) {
+                    enqueue(w);
+                }
+            }
+            else {
+                currentArc[v]++;
+            }
+        }
+    }
+
+    /**
+     * Lowers the price of v as far as it can go while every residual arc leaving v keeps
+     * a reduced cost of at least -eps, which leaves at least one of them at -eps.
+     * @param v the vertex label
+     * @param eps the current eps
+     */
+    private void relabel(int v, long eps) {
+        long best = Long.MIN_VALUE;
+        for (int a = net.getArcStart(v); a < net.getArcEnd(v); a++) {
+            if (net.getResidualCap(a) > 0) {
+                best = Math.max(best, price[net.getArcTarget(a)] - cost[a]);
+            }
+        }
+        // a vertex with excess always has a residual arc leaving it
+        price[v] = best - eps;
+        relabelsSinceUpdate++;
+    }
+
+    /**
+     * Gets the reduced cost of arc a, which leaves u.
+     * @param a the arc
+     * @param u the label of the vertex a leaves
+     * @return the cost of a plus the price of u minus the price of the vertex a enters
+     */
+    private long reducedCost(int a, int u) {
+        return cost[a] + price[u] - price[net.getArcTarget(a)];
+    }
+
+    /**
+     * Adds v to the back of the queue.
+     * @param v the vertex label
+     */
+    private void enqueue(int v) {
+        queued[v] = true;
+        queue[tail] = v;
+        tail = tail + 1 == queue.length ? 0 : tail + 1;
+    }
+}
@@ -0,0 +1,119 @@
+package networkFlow;
+
+/**
+ * The Class FlowRepair.
+ * Restores a maximum flow after the network holding it has been edited, working outward
+ * from the edited edge instead of solving again from zero flow.
+ *
+ * When the flow of an edge (u,v) has to come down by d, the d units are first rerouted
+ * from u to v along residual paths, which keeps the value of the flow. Whatever cannot be
+ * rerouted is sent from u back to the source and from the sink back to v, which cancels
+ * it along paths that carry it, and then augmenting from the source restores a maximum
+ * flow after at most as many augmenting paths as units were cancelled. When capacity is
+ * added instead, the flow stays valid and augmenting from the source is all it takes.
+ */
+public class FlowRepair {
+
+    /** The network whose flow is repaired. */
+    private Network net;
+
+    /** The residual graph of net, made again when vertices have been added. */
+    private LiveResidualGraph resG;
+
+    /** The number of vertices resG was made for. */
+    private int numVertices;
+
+    /**
+     * Instantiates a new FlowRepair object.
+     * @param net the network
+     */
+    public FlowRepair(Network net) {
+        this.net = net;
+    }
+
+    /**
+     * Gets the residual graph of the network, making a new one if vertices have been added.
+     * @return the residual graph
+     */
+    private LiveResidualGraph residual() {
+        if (resG == null || numVertices != net.getNumVertices()) {
+            numVertices = net.getNumVertices();
+            resG = new LiveResidualGraph(net);
+        }
+        return resG;
+    }
+
+    /**
+     * Takes d units of flow off edge e, whose capacity has already been lowered,
+     * and repairs the flow around it.
+     * @param e the edge index
+     * @param d the number of units to take off, at most the flow of e
+     * @return true, if every unit that could not be rerouted was cancelled
+     */
+    public boolean release(int e, long d) {
+        int u = net.getEdgeSource(e);
+        int v = net.getEdgeTarget(e);
+        net.setEdgeFlow(e, net.getEdgeFlow(e) - d); // u now has d units too many and v d too few
+        long rest = d - move(u, v, d);
+        if (rest == 0) { // the value is unchanged and no cut got any wider, so it is still maximum
+            return true;
+        }
+        boolean cancelled = move(u, net.getSource().getLabel(), rest) == rest
+                && move(net.getSink().getLabel(), v, rest) == rest;
+        augment();
+        return cancelled;
+    }
+
+    /**
+     * Moves up to amount units of flow from one vertex to another along residual paths.
+     * @param from the label of the vertex with too much flow coming in
+     * @param to the label of the vertex with too little flow coming in
+     * @param amount the number of units to move
+     * @return the number of units moved
+     */
+    public long move(int from, int to, long amount) {
+        if (from == to) {
+            return amount;
+        }
+        LiveResidualGraph g = residual();
+        long moved = 0;
+        while (moved < amount) {
+            int length = g.findPath(from, to, 1);
+            if (length == 0) {
+                break;
+            }
+            long push = amount - moved;
+            for (int i = 0; i < length; i++) {
+                push = Math.min(push, net.getResidualCap(g.getPathArc(i)));
+            }
+            for (int i = 0; i < length; i++) {
+                net.updateFlow(g.getPathArc(i), push);
+            }
+            moved += push;
+        }
+        return moved;
+    }
+
+    /**
+     * Augments the flow from the source until no augmenting path exists.
+     * @return the number of augmenting paths used
+     */
+    public int augment() {
+        LiveResidualGraph g = residual();
+        int paths = 0;
+        for (;;) {
+            int length = g.findAugmentingPath();
+            if (length == 0) {
+                return paths;
+            }
+            long push = net.getResidualCap(g.getPathArc(0));
+            for (int i = 1; i < length; i++) {
+                push = Math.min(push, net.getResidualCap(g.getPathArc(i)));
+            }
+            for (int i = 0; i < length; i++) {
+                net.updateFlow(g.getPathArc(i), push);
+            }
+            paths++;
+        }
+    }
+}
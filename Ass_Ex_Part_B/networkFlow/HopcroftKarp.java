@@ -0,0 +1,296 @@
+package networkFlow;
+import java.util.*;
+
+/**
+ * The Class HopcroftKarp.
+ * Computes a maximum flow in the layered network source -> Student -> Project -> Lecturer -> sink
+ * in the style of Hopcroft and Karp. Instead of edge flows it keeps the project each student
+ * is assigned to and the number of students on every project and every lecturer; each phase
+ * does one breadth first search from all unassigned students at once and then augments along
+ * vertex-disjoint shortest paths. The result is written back to the edges of the network, so
+ * printFlow and isFlow work as usual.
+ *
+ * Students are expected to have labels 1..numStudents, projects the following numProjects
+ * labels and lecturers the following numLecturers labels, as built by FordFulk.
+ */
+public class HopcroftKarp {
+
+    /** Marks a vertex as not reached in the current phase. */
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    /** The network on which the algorithm is run. */
+    private Network net;
+
+    /** The number of students, projects and lecturers. */
+    private int numStudents, numProjects, numLecturers;
+
+    /** assigned[s] is the label of the project student s is assigned to, or -1. */
+    private int[] assigned;
+
+    /** assignedEdge[s] is the edge from student s to its project, or -1; a student may list a project twice. */
+    private int[] assignedEdge;
+
+    /** load[v] is the number of students on project or lecturer v. */
+    private long[] load;
+
+    /** cap[v] is the capacity of project v, or of lecturer v (its edge to the sink). */
+    private long[] cap;
+
+    /** dist[v] is the length of the shortest path from an unassigned student to v. */
+    private int[] dist;
+
+    /** currentArc[v] is the next arc of v to try in the current phase. */
+    private int[] currentArc;
+
+    /** The breadth first search queue, holding vertex labels. */
+    private int[] queue;
+
+    /** The arcs of the path currently being extended. */
+    private int[] path;
+
+    /**
+     * Instantiates a new HopcroftKarp object.
+     * @param net the network
+     * @param numStudents the number of students
+     * @param numProjects the number of projects
+     * @param numLecturers the number of lecturers
+     */
+    public HopcroftKarp(Network net, int numStudents, int numProjects, int numLecturers) {
+        this.net = net;
+        this.numStudents = numStudents;
+        this.numProjects = numProjects;
+        this.numLecturers = numLecturers;
+        int n = net.getNumVertices();
+        assigned = new int[n];
+        assignedEdge = new int[n];
+        load = new long[n];
+        cap = new long[n];
+        dist = new int[n];
+        currentArc = new int[n];
+        queue = new int[n];
+        path = new int[n];
+    }
+
+    /**
+     * Increases the flow of the network to a maximum flow,
+     * starting from whatever valid flow it currently holds.
+     */
+    public void maxFlow() {
+        readFlow();
+        while (buildLayers()) {
+            for (int v = 1; v <= numStudents + numProjects + numLecturers; v++) {
+                currentArc[v] = net.getArcStart(v);
+            }
+            for (int s = 1; s <= numStudents; s++) {
+                if (assigned[s] == -1 && dist[s] == 0) {
+                    augmentFrom(s);
+                }
+            }
+        }
+        writeFlow();
+    }
+
+    /**
+     * Reads the current assignment, loads and capacities from the edges of the network.
+     */
+    private void readFlow() {
+        Arrays.fill(assigned, -1);
+        Arrays.fill(assignedEdge, -1);
+        for (int v = 1; v <= numStudents + numProjects + numLecturers; v++) {
+            for (int a = net.getArcStart(v); a < net.getArcEnd(v); a++) {
+                if (!net.isForwardArc(a)) {
+                    continue;
+                }
+                int e = net.getArcEdge(a);
+                if (isStudent(v)) {
+                    if (net.getEdgeFlow(e) > 0) {
+                        assigned[v] = net.getArcTarget(a);
+                        assignedEdge[v] = e;
+                    }
+                }
+                else { // the edge from a project to its lecturer, or from a lecturer to the sink
+                    load[v] = net.getEdgeFlow(e);
+                    cap[v] = net.getEdgeCap(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the assignment and loads back to the flows of the edges of the network.
+     */
+    private void writeFlow() {
+        int sourceLabel = net.getSource().getLabel();
+        for (int a = net.getArcStart(sourceLabel); a < net.getArcEnd(sourceLabel); a++) {
+            if (net.isForwardArc(a)) {
+                int s = net.getArcTarget(a);
+                net.setEdgeFlow(net.getArcEdge(a), assigned[s] == -1 ? 0 : 1);
+            }
+        }
+        for (int v = 1; v <= numStudents + numProjects + numLecturers; v++) {
+            for (int a = net.getArcStart(v); a < net.getArcEnd(v); a++) {
+                if (!net.isForwardArc(a)) {
+                    continue;
+                }
+                if (isStudent(v)) {
+                    net.setEdgeFlow(net.getArcEdge(a), assignedEdge[v] == net.getArcEdge(a) ? 1 : 0);
+                }
+                else {
+                    net.setEdgeFlow(net.getArcEdge(a), load[v]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Breadth first search from all unassigned students at once over the residual graph.
+     * The search stops expanding at the first layer that contains a lecturer with spare
+     * capacity, since only shortest augmenting paths are used in a phase.
+     * @return true, if an augmenting path exists
+     */
+    private boolean buildLayers() {
+        Arrays.fill(dist, UNREACHED);
+        int head = 0;
+        int tail = 0;
+        for (int s = 1; s <= numStudents; s++) {
+            if (assigned[s] == -1) {
+                dist[s] = 0;
+                queue[tail++] = s;
+            }
+        }
+        int found = UNREACHED;
+        while (head < tail) {
+            int u = queue[head++];
+            if (dist[u] >= found) {
+                break;
+            }
+            if (isLecturer(u) && load[u] < cap[u]) {
+                found = dist[u];
+                continue;
+            }
+            for (int a = net.getArcStart(u); a < net.getArcEnd(u); a++) {
+                int v = net.getArcTarget(a);
+                if (dist[v] == UNREACHED && isResidual(u, a, v)) {
+                    dist[v] = dist[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return found != UNREACHED;
+    }
+
+    /**
+     * Looks for a shortest augmenting path from unassigned student s0 through the layers
+     * and, if one is found, moves one student along it. Vertices found to lead nowhere
+     * are taken out of the layers for the rest of the phase.
+     * @param s0 the label of an unassigned student
+     */
+    private void augmentFrom(int s0) {
+        int top = 0;
+        int u = s0;
+        for (;;) {
+            if (isLecturer(u) && load[u] < cap[u]) {
+                augment(top, u);
+                return;
+            }
+            int end = net.getArcEnd(u);
+            int a = currentArc[u];
+            while (a < end) {
+                int v = net.getArcTarget(a);
+                if (dist[v] == dist[u] + 1 && isResidual(u, a, v)) {
+                    break;
+                }
+                a++;
+            }
+            currentArc[u] = a;
+            if (a < end) { // advance
+                path[top++] = a;
+                u = net.getArcTarget(a);
+            }
+            else { // retreat
+                dist[u] = UNREACHED;
+                if (top == 0) {
+                    return;
+                }
+                u = net.getArcTarget(net.getReverseArc(path[--top]));
+                currentArc[u]++;
+            }
+        }
+    }
+
+    /**
+     * Moves one unit of flow along the path, ending at lecturer l which
+     * takes one more student.
+     * @param length the number of arcs on the path
+     * @param l the label of the lecturer at the end of the path
+     */
+    private void augment(int length, int l) {
+        for (int i = 0; i < length; i++) {
+            int a = path[i];
+            int u = net.getArcTarget(net.getReverseArc(a));
+            int v = net.getArcTarget(a);
+            if (isStudent(u)) { // student u moves to project v
+                assigned[u] = v;
+                assignedEdge[u] = net.getArcEdge(a);
+            }
+            else if (isProject(u) && isLecturer(v)) { // project u takes one more student
+                load[u]++;
+            }
+            else if (isLecturer(u)) { // project v gives up one student
+                load[v]--;
+            }
+            // an arc from a project back to a student is undone by the next arc on the path
+        }
+        load[l]++;
+    }
+
+    /**
+     * Returns true if arc a from u to v has residual capacity in the layered network.
+     * @param u the tail of the arc
+     * @param a the arc
+     * @param v the head of the arc
+     * @return true, if a is a residual arc
+     */
+    private boolean isResidual(int u, int a, int v) {
+        if (isStudent(u)) { // to a project the student is not on yet
+            return isProject(v) && assigned[u] != v;
+        }
+        if (isProject(u)) {
+            if (isStudent(v)) { // back to a student on this project
+                return assigned[v] == u;
+            }
+            return isLecturer(v) && load[u] < cap[u]; // on to its lecturer
+        }
+        if (isLecturer(u)) { // back to one of its projects that has a student
+            return isProject(v) && !net.isForwardArc(a) && load[v] > 0;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if v is the label of a student.
+     * @param v the vertex label
+     * @return true, if v is a student
+     */
+    private boolean isStudent(int v) {
+        return v >= 1 && v <= numStudents;
+    }
+
+    /**
+     * Returns true if v is the label of a project.
+     * @param v the vertex label
+     * @return true, if v is a project
+     */
+    private boolean isProject(int v) {
+        return v > numStudents && v <= numStudents + numProjects;
+    }
+
+    /**
+     * Returns true if v is the label of a lecturer.
+     * @param v the vertex label
+     * @return true, if v is a lecturer
+     */
+    private boolean isLecturer(int v) {
+        return v > numStudents + numProjects && v <= numStudents + numProjects + numLecturers;
+    }
+}
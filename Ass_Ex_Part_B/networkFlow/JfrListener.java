@@ -0,0 +1,172 @@
+package networkFlow;
+import jdk.jfr.*;
+
+/**
+ * The Class JfrListener.
+ * A SolverListener that emits JDK Flight Recorder events, so that a recording of the JVM
+ * shows what the solver was doing alongside garbage collection and allocation: one event
+ * for reading the input, one for the network built from it, one for every phase, and one
+ * for every SAMPLE-th augmentation, since an event per augmenting path would swamp the
+ * recording. Nothing is recorded unless a recording is running with the events enabled,
+ * as with -XX:StartFlightRecording; otherwise every call returns after a flag check.
+ */
+public class JfrListener implements SolverListener {
+
+    /** By default one augmentation in this many is recorded. */
+    public static final int DEFAULT_SAMPLE = 64;
+
+    /** Reading the input file and building the network from it. */
+    @Name("networkFlow.Parse")
+    @Label("Parse Input")
+    @Category("Network Flow")
+    @Description("Reading the input file and building the network")
+    @StackTrace(false)
+    static class ParseEvent extends Event {
+        @Label("Bytes Read")
+        @DataAmount
+        long bytes;
+
+        @Label("Lines Read")
+        int lines;
+    }
+
+    /** The size of the network read. */
+    @Name("networkFlow.NetworkBuild")
+    @Label("Network Build")
+    @Category("Network Flow")
+    @Description("The network built from the input file")
+    @StackTrace(false)
+    static class NetworkBuildEvent extends Event {
+        @Label("Vertices")
+        int vertices;
+
+        @Label("Edges")
+        int edges;
+    }
+
+    /** A phase of the run. */
+    @Name("networkFlow.Phase")
+    @Label("Solver Phase")
+    @Category("Network Flow")
+    @Description("A phase of the run, such as solving or validating")
+    @StackTrace(false)
+    static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+    }
+
+    /** A sampled augmentation along a path. */
+    @Name("networkFlow.Augmentation")
+    @Label("Augmentation")
+    @Category("Network Flow")
+    @Description("One augmenting path in every sample, with its length and bottleneck")
+    @StackTrace(false)
+    static class AugmentationEvent extends Event {
+        @Label("Augmentation")
+        @Description("The number of the augmentation within the run, from 1")
+        long augmentation;
+
+        @Label("Path Length")
+        int pathLength;
+
+        @Label("Bottleneck")
+        long bottleneck;
+    }
+
+    /** phaseEvents[p] is the event of phase p while it runs. */
+    private PhaseEvent[] phaseEvents = new PhaseEvent[SolverPhase.values().length];
+
+    /** The event of reading the input while it runs. */
+    private ParseEvent parseEvent;
+
+    /** One augmentation in this many is recorded. */
+    private int sample;
+
+    /** The number of augmentations so far. */
+    private long augmentations;
+
+    /**
+     * Instantiates a new JfrListener object recording one augmentation in DEFAULT_SAMPLE.
+     */
+    public JfrListener() {
+        this(DEFAULT_SAMPLE);
+    }
+
+    /**
+     * Instantiates a new JfrListener object.
+     * @param sample one augmentation in this many is recorded, starting with the first
+     */
+    public JfrListener(int sample) {
+        this.sample = sample;
+    }
+
+    /**
+     * Returns true if Flight Recorder has been started in this JVM, as by
+     * -XX:StartFlightRecording, so that events may be recorded. Loading the event classes
+     * costs a noticeable fraction of a second, so they are best left alone otherwise.
+     * @return true, if Flight Recorder is running
+     */
+    public static boolean isAvailable() {
+        return FlightRecorder.isInitialized();
+    }
+
+    /** Begins the event of the phase, and of reading the input if that is the phase. */
+    public void phaseStarted(SolverPhase phase) {
+        PhaseEvent event = new PhaseEvent();
+        if (event.isEnabled()) {
+            event.phase = phase.getName();
+            event.begin();
+            phaseEvents[phase.ordinal()] = event;
+        }
+        if (phase == SolverPhase.PARSE) {
+            parseEvent = new ParseEvent();
+            parseEvent.begin();
+        }
+    }
+
+    /** Commits the event of the phase, and of reading the input if that is the phase. */
+    public void phaseFinished(SolverPhase phase) {
+        PhaseEvent event = phaseEvents[phase.ordinal()];
+        if (event != null) {
+            event.commit();
+            phaseEvents[phase.ordinal()] = null;
+        }
+        if (phase == SolverPhase.PARSE && parseEvent != null) {
+            parseEvent.commit();
+            parseEvent = null;
+        }
+    }
+
+    /** Fills in the event of reading the input and records the size of the network. */
+    public void networkRead(long bytesRead, int linesRead, int numVertices, int numEdges) {
+        if (parseEvent != null) {
+            parseEvent.bytes = bytesRead;
+            parseEvent.lines = linesRead;
+        }
+        NetworkBuildEvent event = new NetworkBuildEvent();
+        if (event.isEnabled()) {
+            event.vertices = numVertices;
+            event.edges = numEdges;
+            event.commit();
+        }
+    }
+
+    /** Searches are not recorded; the sampled augmentations say how long the paths are. */
+    public void searchFinished(int verticesScanned, int arcsScanned, int pathLength) {
+    }
+
+    /** Records the augmentation if it is one of the sample. */
+    public void augmented(int pathLength, long bottleneck) {
+        augmentations++;
+        if ((augmentations - 1) % sample != 0) {
+            return;
+        }
+        AugmentationEvent event = new AugmentationEvent();
+        if (event.isEnabled()) {
+            event.augmentation = augmentations;
+            event.pathLength = pathLength;
+            event.bottleneck = bottleneck;
+            event.commit();
+        }
+    }
+}
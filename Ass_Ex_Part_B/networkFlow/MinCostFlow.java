@@ -0,0 +1,291 @@
+package networkFlow;
+import java.util.*;
+
+/**
+ * The Class MinCostFlow.
+ * Computes a maximum flow of least cost by successive shortest paths, where the cost of an
+ * arc is the cost of its edge, or minus it for an arc running against its edge. Augmenting
+ * a flow that is cheapest for its value along a cheapest path gives a flow that is cheapest
+ * for the new value, so the maximum flow reached at the end costs as little as any maximum
+ * flow.
+ *
+ * Negative arc costs would need Bellman-Ford, so every vertex carries a potential and the
+ * distances are found by Dijkstra's algorithm on reduced costs, cost(u,v) + p(u) - p(v),
+ * which stay non-negative when the distances found are added to the potentials (Johnson's
+ * reweighting). Only the vertices closer than the sink are settled and reweighted, each by
+ * its distance minus that of the sink, so the search stops at the sink and the work per
+ * search does not grow with the rest of the network. After reweighting, the cheapest paths
+ * are exactly the augmenting paths over arcs of reduced cost 0, and as in Dinic a blocking
+ * flow is pushed along all of them by level before the next search. With costs that are
+ * small integers, such as preference ranks, this needs one search per distinct path cost
+ * rather than one per augmenting path. The Dijkstra queue is a RadixHeap and the per-vertex
+ * arrays are stamped with an epoch, so no search allocates anything.
+ */
+public class MinCostFlow {
+
+    /** The network on which the algorithm is run. */
+    private Network net;
+
+    /** potential[v] is the potential of v; every residual arc has non-negative reduced cost. */
+    private int[] potential;
+
+    /** dist[v] is the reduced cost of the cheapest path found to v in the current search. */
+    private int[] dist;
+
+    /** reached[v] is the epoch in which v was last reached. */
+    private int[] reached;
+
+    /** settled[v] is the epoch in which the distance of v was last made final. */
+    private int[] settled;
+
+    /** The current epoch. */
+    private int epoch;
+
+    /** The vertices settled by the current search, in the order they were settled. */
+    private int[] settledOrder;
+
+    /** The Dijkstra queue. */
+    private RadixHeap heap;
+
+    /** level[v] is the distance of v from the source over arcs of reduced cost 0, or -1. */
+    private int[] level;
+
+    /** currentArc[v] is the next arc of v to try in the current blocking flow. */
+    private int[] currentArc;
+
+    /** The breadth first search queue, holding vertex labels. */
+    private int[] queue;
+
+    /** The arcs of the path currently being extended from the source. */
+    private int[] path;
+
+    /**
+     * Instantiates a new MinCostFlow object for a network holding the zero flow, or any flow
+     * with no residual arc of negative cost; the costs of the edges must not be negative.
+     * @param net the network
+     */
+    public MinCostFlow(Network net) {
+        this(net, new int[net.getNumVertices()]);
+    }
+
+    /**
+     * Instantiates a new MinCostFlow object for a network holding a flow that is cheapest for
+     * its value, with potentials under which every residual arc has non-negative reduced cost.
+     * @param net the network
+     * @param potential the potentials, indexed by vertex label; updated as the flow grows
+     */
+    public MinCostFlow(Network net, int[] potential) {
+        this.net = net;
+        this.potential = potential;
+        dist = new int[net.getNumVertices()];
+        reached = new int[net.getNumVertices()];
+        settled = new int[net.getNumVertices()];
+        settledOrder = new int[net.getNumVertices()];
+        heap = new RadixHeap();
+        level = new int[net.getNumVertices()];
+        currentArc = new int[net.getNumVertices()];
+        queue = new int[net.getNumVertices()];
+        path = new int[net.getNumVertices()];
+    }
+
+    /**
+     * Gets the potentials, which are valid for the flow the network holds.
+     * @return the potentials, indexed by vertex label
+     */
+    public int[] getPotentials() {
+        return potential;
+    }
+
+    /**
+     * Increases the flow of the network to a maximum flow of least cost.
+     * @return the number of augmenting paths used
+     */
+    public int maxFlow() {
+        int sourceLabel = net.getSource().getLabel();
+        int sinkLabel = net.getSink().getLabel();
+        int paths = 0;
+        while (reweight(sourceLabel, sinkLabel)) {
+            while (buildLevels(sourceLabel, sinkLabel)) {
+                for (int v = 0; v < net.getNumVertices(); v++) {
+                    currentArc[v] = net.getArcStart(v);
+                }
+                paths += blockingFlow(sourceLabel, sinkLabel);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Finds the reduced cost of the cheapest augmenting path by Dijkstra's algorithm, and
+     * changes the potentials so that the cheapest paths have reduced cost 0.
+     * @param sourceLabel the label of the source
+     * @param sinkLabel the label of the sink
+     * @return true, if the sink is reachable
+     */
+    private boolean reweight(int sourceLabel, int sinkLabel) {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) { // only after ~2^31 searches
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            epoch = 1;
+        }
+        int numSettled = 0;
+        heap.clear();
+        reached[sourceLabel] = epoch;
+        dist[sourceLabel] = 0;
+        heap.push(sourceLabel, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.pop();
+            if (settled[u] == epoch || heap.lastKey() != dist[u]) {
+                continue; // a stale entry, u was pushed again with a cheaper path
+            }
+            settled[u] = epoch;
+            settledOrder[numSettled++] = u;
+            if (u == sinkLabel) {
+                break;
+            }
+            for (int a = net.getArcStart(u); a < net.getArcEnd(u); a++) {
+                int v = net.getArcTarget(a);
+                if (net.getResidualCap(a) == 0 || settled[v] == epoch) {
+                    continue;
+                }
+                int d = dist[u] + reducedCost(a, u, v);
+                if (reached[v] != epoch || d < dist[v]) {
+                    reached[v] = epoch;
+                    dist[v] = d;
+                    heap.push(v, d);
+                }
+            }
+        }
+        if (settled[sinkLabel] != epoch) { // we didn't manage to reach the sink
+            return false;
+        }
+        // adding min(dist, sink distance) to every potential would do; subtracting the sink
+        // distance from all of them changes no reduced cost and leaves the rest untouched
+        int sinkDist = dist[sinkLabel];
+        for (int i = 0; i < numSettled; i++) {
+            int v = settledOrder[i];
+            potential[v] += dist[v] - sinkDist;
+        }
+        return true;
+    }
+
+    /**
+     * Labels every vertex with its distance from the source over residual arcs
+     * of reduced cost 0.
+     * @param sourceLabel the label of the source
+     * @param sinkLabel the label of the sink
+     * @return true, if the sink is reachable over such arcs
+     */
+    private boolean buildLevels(int sourceLabel, int sinkLabel) {
+        Arrays.fill(level, -1);
+        level[sourceLabel] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = sourceLabel;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = net.getArcStart(u); a < net.getArcEnd(u); a++) {
+                int v = net.getArcTarget(a);
+                if (level[v] == -1 && net.getResidualCap(a) > 0 && reducedCost(a, u, v) == 0) {
+                    level[v] = level[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return level[sinkLabel] != -1;
+    }
+
+    /**
+     * Pushes a blocking flow along the arcs of reduced cost 0 that lead one level up,
+     * as Dinic does.
+     * @param sourceLabel the label of the source
+     * @param sinkLabel the label of the sink
+     * @return the number of augmenting paths used
+     */
+    private int blockingFlow(int sourceLabel, int sinkLabel) {
+        int paths = 0;
+        int top = 0;
+        int u = sourceLabel;
+        for (;;) {
+            if (u == sinkLabel) {
+                long newFlow = net.getResidualCap(path[0]);
+                for (int i = 1; i < top; i++) {
+                    newFlow = Math.min(newFlow, net.getResidualCap(path[i]));
+                }
+                int cut = -1;
+                for (int i = 0; i < top; i++) {
+                    net.updateFlow(path[i], newFlow);
+                    if (cut == -1 && net.getResidualCap(path[i]) == 0) {
+                        cut = i;
+                    }
+                }
+                paths++;
+                // continue from the tail of the first saturated arc
+                top = cut;
+                u = tailOf(path[cut]);
+                continue;
+            }
+            int end = net.getArcEnd(u);
+            int a = currentArc[u];
+            while (a < end && !isAdmissible(a, u)) {
+                a++;
+            }
+            currentArc[u] = a;
+            if (a < end) { // advance
+                path[top++] = a;
+                u = net.getArcTarget(a);
+            }
+            else { // retreat
+                level[u] = -1; // u cannot reach the sink any more in this phase
+                if (top == 0) {
+                    return paths;
+                }
+                u = tailOf(path[--top]);
+                currentArc[u]++;
+            }
+        }
+    }
+
+    /**
+     * Returns true if arc a, which leaves u, has residual capacity, reduced cost 0 and
+     * leads one level up.
+     * @param a the arc
+     * @param u the label of the vertex a leaves
+     * @return true, if the blocking flow may use a
+     */
+    private boolean isAdmissible(int a, int u) {
+        int v = net.getArcTarget(a);
+        return level[v] == level[u] + 1 && net.getResidualCap(a) > 0 && reducedCost(a, u, v) == 0;
+    }
+
+    /**
+     * Gets the reduced cost of arc a from u to v.
+     * @param a the arc
+     * @param u the label of the vertex a leaves
+     * @param v the label of the vertex a enters
+     * @return the cost of a plus the potential of u minus the potential of v
+     */
+    private int reducedCost(int a, int u, int v) {
+        return arcCost(a) + potential[u] - potential[v];
+    }
+
+    /**
+     * Gets the cost of arc a: the cost of its edge, negated if a runs against it.
+     * @param a the arc
+     * @return the cost of a
+     */
+    private int arcCost(int a) {
+        int cost = net.getEdgeCost(net.getArcEdge(a));
+        return net.isForwardArc(a) ? cost : -cost;
+    }
+
+    /**
+     * Gets the label of the vertex that arc a leaves.
+     * @param a the arc
+     * @return the tail label
+     */
+    private int tailOf(int a) {
+        return net.getArcTarget(net.getReverseArc(a));
+    }
+}
@@ -1,5 +1,8 @@
 package networkFlow;
+import java.io.*;
+import java.lang.invoke.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * The Class Network.
@@ -19,6 +22,16 @@ public class Network extends DirectedGraph {
 	/** The label of the sink vertex. */
 	protected int sinkLabel;
 
+	/** edgeCost[e] is the cost of one unit of flow along edge e; null while every cost is 0,
+	 *  and shorter than the edge arrays when the last edges added cost 0. */
+	protected int [] edgeCost;
+
+	/** Compare-and-set on the elements of edgeFlow. */
+	private static final VarHandle FLOW = MethodHandles.arrayElementVarHandle(long[].class);
+
+	/** Repairs the flow after an edit, made on the first edit. */
+	private FlowRepair repair;
+
 	/**
 	 * Instantiates a new network.
 	 * @param n the number of vertices
@@ -60,10 +73,44 @@ public class Network extends DirectedGraph {
 	 * @param target the target endpoint vertex
 	 * @param cap the capacity of the edge
 	 */
-	public void addEdge(Vertex source, Vertex target, int cap) {
-		Edge e = new Edge(source, target, cap);
-		adjLists.get(source.getLabel()).addLast(target);
-		adjMatrix[source.getLabel()][target.getLabel()]=e;
+	public void addEdge(Vertex source, Vertex target, long cap) {
+		newEdge(source.getLabel(), target.getLabel(), cap);
+	}
+
+	/**
+	 * Sets the cost of one unit of flow along edge e.
+	 * @param e the edge index
+	 * @param cost the cost, at least 0
+	 */
+	public void setEdgeCost(int e, int cost) {
+		if (edgeCost == null) {
+			edgeCost = new int[edgeCap.length];
+		}
+		else if (edgeCost.length < edgeCap.length) {
+			edgeCost = Arrays.copyOf(edgeCost, edgeCap.length);
+		}
+		edgeCost[e] = cost;
+	}
+
+	/**
+	 * Gets the cost of one unit of flow along edge e.
+	 * @param e the edge index
+	 * @return the cost, 0 for an edge whose cost was never set
+	 */
+	public int getEdgeCost(int e) {
+		return edgeCost == null || e >= edgeCost.length ? 0 : edgeCost[e];
+	}
+
+	/**
+	 * Gets the cost of the flow: the sum over the edges of flow times cost.
+	 * @return the cost of the flow
+	 */
+	public long getCost() {
+		long cost = 0;
+		for (int e = 0; edgeCost != null && e < edgeCost.length && e < numEdges; e++) {
+			cost += edgeFlow[e] * edgeCost[e];
+		}
+		return cost;
 	}
 
 	/**
@@ -77,68 +124,131 @@ public class Network extends DirectedGraph {
      * 3) flow conservation constr: for every vertex apart from s and t, total in flow = total out flow
      * */
 	public boolean isFlow() {
-        /** a matrix that contains the flow of every edge or 0 if the edge does not exist.
-         * flowMatrix[i][j] contains the flow of the edge (i,j), where i and j are labels
-         * of the nodes. */
-        int[][] flowMatrix = new int[numVertices][numVertices];
-
-        int inflow[] = new int[numVertices];
-        int outflow[] = new int[numVertices];
-
-        /** initialize inflow and outflow */
-        for (int i=0; i<numVertices;i++){
-            inflow[i] = 0; // total incoming flow for a node with label i
-            outflow[i] = 0; // total outgoing flow for a node with label i
-        }
-
-        /** build the flow matrix */
-        for (int i=0;i<numVertices;i++) {
-            for (int j=0;j<numVertices;j++) {
-                Edge e = getAdjMatrixEntry(getVertexByIndex(i),getVertexByIndex(j));
-                int flow = 0;
-                if (e != null) {
-                    flow = e.getFlow(); // update the flow var if the edge exists
-                    if (flow < 0 || flow > e.getCap()) { // 2)
-                        return false;
-                    }
-                }
-                flowMatrix[i][j] = flow; // if the edge does not exist, we put 0
-            }
+		return isFlow(false);
+	}
 
+	/**
+	 * Returns true if and only if the assignment of integers to the flow fields of
+	 * each edge in the network is a valid flow, as for isFlow(). Only the edges are
+	 * walked: every vertex adds up the flows of its own arcs, forward arcs into its
+	 * outflow and arcs against their edges into its inflow, so the check takes O(n + m)
+	 * time, and since no two vertices write to the same entries the vertices can be
+	 * split into ranges checked in parallel.
+	 * @param parallel true to check ranges of vertices in parallel on the common fork-join pool
+	 * @return true, if the assignment is a valid flow
+	 */
+	public boolean isFlow(boolean parallel) {
+        long inflow[] = new long[numVertices];
+        long outflow[] = new long[numVertices];
+        ensureCsr(); // before any range task reads the arcs
+        boolean valid;
+        if (parallel) {
+            valid = ForkJoinPool.commonPool().invoke(new FlowCheck(0, numVertices, inflow, outflow));
         }
-        /** derive the incomming and outgoing flow for every vertex */
-        for(int i = 0; i < numVertices; i++) {
-            for (int j = 0; j < numVertices; j++) {
-                outflow[i] += flowMatrix[j][i];
-                inflow[i] += flowMatrix[i][j];
-            }
+        else {
+            valid = isFlow(0, numVertices, inflow, outflow);
         }
+        /** check that the flow in the sink is the same as the flow out of the source */
+        return valid && outflow[sourceLabel] - inflow[sourceLabel] == inflow[sinkLabel] - outflow[sinkLabel]; // 1)
+	}
 
-        /** check the flow conservation constraint */
-        for (int i = 1; i < numVertices - 1; i++) { // 3)
-            if (inflow[i] != outflow[i]) {
+	/**
+	 * Checks constraints 2) and 3) of isFlow() for the vertices with labels from lo up to
+	 * hi, adding up their inflow and outflow.
+	 * @param lo the first label of the range
+	 * @param hi one past the last label of the range
+	 * @param inflow the total in flow of every vertex, filled in for the range
+	 * @param outflow the total out flow of every vertex, filled in for the range
+	 * @return true, if no constraint is broken in the range
+	 */
+	private boolean isFlow(int lo, int hi, long[] inflow, long[] outflow) {
+        for (int v = lo; v < hi; v++) {
+            long in = 0;
+            long out = 0;
+            for (int a = offsets[v]; a < blockEnd[v]; a++) {
+                int code = arcEdge[a];
+                if (code >= 0) { // every edge is checked once, from its source endpoint
+                    long flow = edgeFlow[code];
+                    if (flow < 0 || flow > edgeCap[code]) { // 2)
+                        return false;
+                    }
+                    out += flow;
+                }
+                else {
+                    in += edgeFlow[~code];
+                }
+            }
+            inflow[v] = in;
+            outflow[v] = out;
+            if (v != sourceLabel && v != sinkLabel && in != out) { // 3)
                 return false;
             }
         }
+        return true;
+	}
 
-        /** check that the flow in the sink is the same as the flow out of the source */
-        if (inflow[sinkLabel] != outflow[sourceLabel]) { // 1)
-            return false;
-        }
+	/**
+	 * The Class FlowCheck.
+	 * Checks a range of vertices for isFlow(true), splitting it in halves
+	 * while it has more than GRAIN vertices.
+	 */
+	private class FlowCheck extends RecursiveTask<Boolean> {
 
-        return true;
+		/** The serialization version. */
+		private static final long serialVersionUID = 1L;
+
+		/** The number of vertices below which a range is checked without splitting it. */
+		private static final int GRAIN = 1 << 13;
+
+		/** The first label and one past the last label of the range. */
+		private int lo, hi;
+
+		/** The total in flow and out flow of every vertex. */
+		private long[] inflow, outflow;
+
+		/**
+		 * Instantiates a new FlowCheck task.
+		 * @param lo the first label of the range
+		 * @param hi one past the last label of the range
+		 * @param inflow the total in flow of every vertex
+		 * @param outflow the total out flow of every vertex
+		 */
+		FlowCheck(int lo, int hi, long[] inflow, long[] outflow) {
+			this.lo = lo;
+			this.hi = hi;
+			this.inflow = inflow;
+			this.outflow = outflow;
+		}
+
+		@Override
+		protected Boolean compute() {
+			if (hi - lo <= GRAIN) {
+				return isFlow(lo, hi, inflow, outflow);
+			}
+			int mid = (lo + hi) >>> 1;
+			FlowCheck left = new FlowCheck(lo, mid, inflow, outflow);
+			left.fork();
+			boolean right = new FlowCheck(mid, hi, inflow, outflow).compute();
+			return left.join() && right;
+		}
 	}
 
 	/**
-	 * Gets the value of the flow: the total flow out from s or the total flow into t
+	 * Gets the value of the flow: the net flow out of s, which is the net flow into t.
+	 * Flow on edges into s is subtracted, since push-relabel may leave some on cycles
+	 * through s when it returns excess to it.
 	 * @return the value of the flow
 	 */
-	public int getValue() {
-        int totalF = 0;
-        /** total flow of sourse(s), same as total flow out of sink(t): */
-        LinkedList<Vertex> neighbors = getAdjListByLabel(sourceLabel);
-        for (int i = 0; i < neighbors.size(); i++) {
-            totalF = totalF + getAdjMatrixEntry(source,neighbors.get(i)).getFlow();
+	public long getValue() {
+        long totalF = 0;
+        /** net flow out of the source(s), same as the net flow into the sink(t): */
+        for (int a = getArcStart(sourceLabel); a < getArcEnd(sourceLabel); a++) {
+            if (isForwardArc(a)) {
+                totalF = totalF + edgeFlow[arcEdge[a]];
+            }
+            else {
+                totalF = totalF - edgeFlow[~arcEdge[a]];
+            }
         }
 		return totalF;
 	}
@@ -147,58 +257,184 @@ public class Network extends DirectedGraph {
 	 * Prints the flow.
 	 * Display the flow through the network
 	 */
-	public void printFlow(int numStudents, int numProjects, int numLecturers) {
-        // print students
+	public void printFlow(int numStudents, int numProjects, int numLecturers) throws IOException {
+        System.out.flush(); // whatever went through System.out must come out first
+        ByteWriter out = ByteWriter.toStandardOutput();
+        writeFlow(out, OutputFormat.TEXT, numStudents, numProjects, numLecturers);
+        out.flush();
+	}
+
+	/**
+	 * Writes the assignment in the given format: the students with their projects, then the
+	 * projects and then the lecturers with how many students each is assigned. TEXT gives the
+	 * sentences of printFlow. CSV gives the header line
+	 * kind,id,project,capacity,assigned and one record per student, project and lecturer,
+	 * leaving blank the fields that do not apply.
+	 * JSON_LINES gives one object per student, project and lecturer, with a null project for
+	 * an unassigned student. Only the edges of each vertex are visited, and nothing is
+	 * allocated per line.
+	 * @param out the writer, which is left unflushed
+	 * @param format the output format
+	 * @param numStudents the number of students
+	 * @param numProjects the number of projects
+	 * @param numLecturers the number of lecturers
+	 */
+	public void writeFlow(ByteWriter out, OutputFormat format, int numStudents, int numProjects,
+			int numLecturers) throws IOException {
+        if (format == OutputFormat.CSV) {
+            out.println("kind,id,project,capacity,assigned");
+        }
+        // write students
         for (int s = 1; s <= numStudents; s++) {
             boolean isprinted = false;
-            for (int p = 1 + numStudents; p <= numStudents + numProjects; p++) {
-                Edge e = getAdjMatrixEntry(getVertexByIndex(s), getVertexByIndex(p));
-                if (e!= null && e.getFlow() == 1) {
-                    System.out.println("Student " + s + " is assigned to project " + (p -numStudents ));
+            // walk the edges of s rather than every project
+            for (int a = getArcStart(s); a < getArcEnd(s); a++) {
+                int p = arcTarget[a];
+                if (!isForwardArc(a) || p <= numStudents || p > numStudents + numProjects) {
+                    continue;
+                }
+                if (edgeFlow[arcEdge[a]] == 1) {
+                    int project = p - numStudents;
+                    switch (format) {
+                        case TEXT:
+                            out.print("Student ").print(s).print(" is assigned to project ").print(project).println();
+                            break;
+                        case CSV:
+                            out.print("student,").print(s).print(',').print(project).println(",,");
+                            break;
+                        case JSON_LINES:
+                            out.print("{\"student\":").print(s).print(",\"project\":").print(project).println("}");
+                            break;
+                    }
                     isprinted = true; // the student is assigned a project
                 }
             }
-            // print the student if he/she has no project
+            // write the student if he/she has no project
             if (!isprinted) {
-                System.out.println("Student " + s + " is unassigned");
+                switch (format) {
+                    case TEXT:
+                        out.print("Student ").print(s).println(" is unassigned");
+                        break;
+                    case CSV:
+                        out.print("student,").print(s).println(",,,");
+                        break;
+                    case JSON_LINES:
+                        out.print("{\"student\":").print(s).println(",\"project\":null}");
+                        break;
+                }
             }
         }
-        System.out.println();
-        // print projects
+        if (format == OutputFormat.TEXT) {
+            out.println();
+        }
+        // write projects
         for (int p = numStudents + 1; p <= numStudents + numProjects; p++) {
-            for (int l = 1 + numStudents + numProjects; l <= numStudents + numProjects + numLecturers; l++) {
-                Edge e = getAdjMatrixEntry(getVertexByIndex(p), getVertexByIndex(l));
-                if (e != null) {
-                    System.out.print("Project " + (p - numStudents)
-                            + " with capacity " + e.getCap()
-                            + " is assigned to " + e.getFlow() + " student");
-                    if (e.getFlow() == 1) {
-                        System.out.println();
-                    }
-                    else {
-                        System.out.println("s");
+            // walk the edges of p rather than every lecturer
+            for (int a = getArcStart(p); a < getArcEnd(p); a++) {
+                int l = arcTarget[a];
+                if (isForwardArc(a) && l > numStudents + numProjects && l <= numStudents + numProjects + numLecturers) {
+                    int e = arcEdge[a];
+                    int project = p - numStudents;
+                    switch (format) {
+                        case TEXT:
+                            out.print("Project ").print(project).print(" with capacity ").print(edgeCap[e]);
+                            writeAssigned(out, edgeFlow[e]);
+                            break;
+                        case CSV:
+                            out.print("project,").print(project).print(",,")
+                                    .print(edgeCap[e]).print(',').print(edgeFlow[e]).println();
+                            break;
+                        case JSON_LINES:
+                            out.print("{\"project\":").print(project)
+                                    .print(",\"capacity\":").print(edgeCap[e])
+                                    .print(",\"assigned\":").print(edgeFlow[e]).println("}");
+                            break;
                     }
                 }
             }
         }
-        System.out.println();
-        // print lecturers
+        if (format == OutputFormat.TEXT) {
+            out.println();
+        }
+        // write lecturers, each of which has a single edge to the sink
+        int sinkLabel = sink.getLabel();
         for (int l = numStudents + numProjects + 1; l <= numLecturers + numProjects + numStudents; l++) {
-            Edge e = getAdjMatrixEntry(getVertexByIndex(l), sink);
-            if (e != null) {
-                System.out.print("Lecturer " + (l - numStudents - numProjects)
-                        + " with capacity " + e.getCap()
-                        + " is assigned to " + e.getFlow() + " student");
-                if (e.getFlow() == 1) {
-                    System.out.println();
+            for (int a = getArcStart(l); a < getArcEnd(l); a++) {
+                if (!isForwardArc(a) || arcTarget[a] != sinkLabel) {
+                    continue;
                 }
-                else {
-                    System.out.println("s"); // put 's' if there are 0 or more than 1 students
+                int e = arcEdge[a];
+                int lecturer = l - numStudents - numProjects;
+                switch (format) {
+                    case TEXT:
+                        out.print("Lecturer ").print(lecturer)
+                                .print(" with capacity ").print(edgeCap[e]);
+                        writeAssigned(out, edgeFlow[e]);
+                        break;
+                    case CSV:
+                        out.print("lecturer,").print(lecturer).print(",,")
+                                .print(edgeCap[e]).print(',').print(edgeFlow[e]).println();
+                        break;
+                    case JSON_LINES:
+                        out.print("{\"lecturer\":").print(lecturer)
+                                .print(",\"capacity\":").print(edgeCap[e])
+                                .print(",\"assigned\":").print(edgeFlow[e]).println("}");
+                        break;
                 }
             }
         }
 	}
 
+	/**
+	 * Ends a line of the text format with the number of students assigned.
+	 * @param out the writer
+	 * @param flow the number of students
+	 */
+	private void writeAssigned(ByteWriter out, long flow) throws IOException {
+        out.print(" is assigned to ").print(flow).print(" student");
+        if (flow == 1) {
+            out.println();
+        }
+        else {
+            out.println("s"); // put 's' if there are 0 or more than 1 students
+        }
+	}
+
+	/**
+	 * Prints what a minimum cut says about the assignment: every unassigned student is on the
+	 * source side, so every project and lecturer such a student could still be moved to is
+	 * full, and the capacities of those projects and lecturers are what keeps more students
+	 * from being assigned.
+	 * @param cut the minimum cut of the flow held by this network
+	 * @param out the stream to print to
+	 */
+	public void printMinCut(MinCut cut, int numStudents, int numProjects, int numLecturers, PrintStream out) {
+        int unassigned = 0;
+        for (int a = getArcStart(sourceLabel); a < getArcEnd(sourceLabel); a++) {
+            if (isForwardArc(a) && edgeFlow[arcEdge[a]] == 0) {
+                unassigned++;
+            }
+        }
+        out.println("A minimum cut has capacity " + cut.getCapacity()
+                + " and " + unassigned + " students are unassigned");
+        // print projects whose capacity is binding
+        for (int e : cut.getCutEdges()) {
+            int p = edgeSource[e];
+            if (p > numStudents && p <= numStudents + numProjects && edgeTarget[e] != sinkLabel) {
+                out.println("Project " + (p - numStudents)
+                        + " with capacity " + edgeCap[e] + " is binding");
+            }
+        }
+        // print lecturers whose capacity is binding
+        for (int e : cut.getCutEdges()) {
+            int l = edgeSource[e];
+            if (l > numStudents + numProjects && edgeTarget[e] == sinkLabel) {
+                out.println("Lecturer " + (l - numStudents - numProjects)
+                        + " with capacity " + edgeCap[e] + " is binding");
+            }
+        }
+	}
+
     /**
      * Updates the flow by adding/substracting the new flow derived after an iteration
      * of the Ford-Fulk algorithm.
@@ -206,7 +442,7 @@ public class Network extends DirectedGraph {
      *               we use this edge to get the original edge in the graph that is to be updated
      * @param newFlow: the new flow we are updating with
      * */
-    public void updateFlow(Edge resEdge, int newFlow){
+    public void updateFlow(Edge resEdge, long newFlow){
         Vertex residualVU = resEdge.getSourceVertex();
         Vertex residualVV = resEdge.getTargetVertex();
         Edge edge = getAdjMatrixEntry(residualVU, residualVV);
@@ -220,4 +456,173 @@ public class Network extends DirectedGraph {
             edge.setFlow(edge.getFlow() + newFlow);
         }
     }
+
+    /**
+     * Gets the residual capacity of arc a, read directly from the network:
+     * cap - flow if a runs along its edge, flow if a runs against it.
+     * @param a the arc
+     * @return the residual capacity of a
+     */
+    public long getResidualCap(int a) {
+        int code = arcEdge[a];
+        if (code >= 0) {
+            return edgeCap[code] - edgeFlow[code];
+        }
+        return edgeFlow[~code];
+    }
+
+    /**
+     * Updates the flow by pushing newFlow units along arc a of the residual graph:
+     * the flow of its edge goes up for a forward arc and down for a backward arc.
+     * @param a the arc
+     * @param newFlow the new flow we are updating with
+     */
+    public void updateFlow(int a, long newFlow) {
+        int code = arcEdge[a];
+        if (code >= 0) {
+            edgeFlow[code] += newFlow;
+        }
+        else {
+            edgeFlow[~code] -= newFlow;
+        }
+    }
+
+    /**
+     * Pushes up to max units of flow along arc a of the residual graph, as updateFlow does,
+     * but with a compare-and-set on the flow of its edge, so that threads pushing along the
+     * same edge at once never take more than its residual capacity between them.
+     * @param a the arc
+     * @param max the most flow to push
+     * @return the flow pushed, the smaller of max and the residual capacity of a
+     */
+    public long pushAtomically(int a, long max) {
+        int code = arcEdge[a];
+        int e = code >= 0 ? code : ~code;
+        while (true) {
+            long f = (long) FLOW.getVolatile(edgeFlow, e);
+            long delta = Math.min(max, code >= 0 ? edgeCap[e] - f : f);
+            if (delta <= 0) {
+                return 0;
+            }
+            if (FLOW.compareAndSet(edgeFlow, e, f, code >= 0 ? f + delta : f - delta)) {
+                return delta;
+            }
+        }
+    }
+
+    /**
+     * Adds edge (source,target) with capacity cap to a network holding a maximum flow,
+     * and augments the flow until it is maximum again.
+     * @param source the source endpoint vertex
+     * @param target the target endpoint vertex
+     * @param cap the capacity of the edge
+     * @return the index of the new edge
+     */
+    public int insertEdge(Vertex source, Vertex target, long cap) {
+        int e = newEdge(source.getLabel(), target.getLabel(), cap);
+        getRepair().augment();
+        return e;
+    }
+
+    /**
+     * Changes the capacity of edge e of a network holding a maximum flow, and repairs the
+     * flow around e so that it is a maximum flow again. Flow above the new capacity is
+     * rerouted where possible and cancelled otherwise; new capacity is augmented into.
+     * @param e the edge index
+     * @param cap the new capacity
+     */
+    public void setCapacity(int e, long cap) {
+        long oldCap = edgeCap[e];
+        setEdgeCap(e, cap);
+        if (edgeFlow[e] > cap) {
+            getRepair().release(e, edgeFlow[e] - cap);
+        }
+        else if (cap > oldCap) {
+            getRepair().augment();
+        }
+    }
+
+    /**
+     * Removes edge e from a network holding a maximum flow, repairing the flow as for
+     * setCapacity(e, 0). The edge with the highest index takes over index e.
+     * @param e the edge index
+     */
+    public void removeEdge(int e) {
+        setCapacity(e, 0);
+        deleteEdge(e);
+    }
+
+    /**
+     * Removes every edge into and out of v from a network holding a maximum flow, repairing
+     * the flow as for removeEdge. The label of v stays in use by a vertex with no edges.
+     * @param v the vertex
+     */
+    public void removeVertex(Vertex v) {
+        int[] edges = incidentEdges(v.getLabel());
+        for (int e : edges) {
+            setCapacity(e, 0);
+        }
+        // downwards, so the edge moved into index e is never one still to be deleted
+        for (int i = edges.length - 1; i >= 0; i--) {
+            deleteEdge(edges[i]);
+        }
+    }
+
+    /**
+     * Gets the edges into and out of the vertex with label u, read from its block of arcs
+     * rather than by looking through every edge.
+     * @param u the vertex label
+     * @return the edge indices, in increasing order and each once
+     */
+    private int[] incidentEdges(int u) {
+        int start = getArcStart(u);
+        int[] edges = new int[getArcEnd(u) - start];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = getArcEdge(start + i);
+        }
+        Arrays.sort(edges);
+        int count = 0;
+        for (int i = 0; i < edges.length; i++) {
+            if (count == 0 || edges[count - 1] != edges[i]) { // a loop at u has two arcs
+                edges[count++] = edges[i];
+            }
+        }
+        return Arrays.copyOf(edges, count);
+    }
+
+    /**
+     * Deletes edge e as in DirectedGraph, moving the cost of the last edge along with it.
+     * @param e the edge index
+     */
+    protected void deleteEdge(int e) {
+        moveLastEntry(edgeCost, e);
+        super.deleteEdge(e);
+    }
+
+    /**
+     * Moves the entry of the last edge in a per-edge array into entry e, as deleteEdge moves
+     * the edge itself. Entries past the end of the array count as 0.
+     * @param values the per-edge array, or null
+     * @param e the edge index
+     */
+    private void moveLastEntry(int[] values, int e) {
+        int last = numEdges - 1;
+        if (values != null && e < values.length) {
+            values[e] = last < values.length ? values[last] : 0;
+            if (last < values.length) {
+                values[last] = 0;
+            }
+        }
+    }
+
+    /**
+     * Gets the object that repairs the flow after an edit, making it on first use.
+     * @return the flow repair
+     */
+    private FlowRepair getRepair() {
+        if (repair == null) {
+            repair = new FlowRepair(this);
+        }
+        return repair;
+    }
 }
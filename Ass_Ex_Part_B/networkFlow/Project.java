@@ -28,6 +28,18 @@ public class Project extends Vertex {
         this.proposedBy = proposedBy;
     }
 
+    /**
+     * Instantiates a new vertex from a flag already read as a boolean.
+     *
+     * @param i the vertex label
+     */
+    public Project(int i, boolean isSE, int capacity, int proposedBy) {
+        super(i);
+        this.isSE = isSE;
+        this.capacity = capacity;
+        this.proposedBy = proposedBy;
+    }
+
     public int getLabel(){
         return super.label;
     }
@@ -0,0 +1,129 @@
+package networkFlow;
+import java.util.*;
+
+/**
+ * The Class RadixHeap.
+ * A monotone priority queue of vertex labels with non-negative long keys, kept in primitive
+ * arrays. Keys pushed must not be below the last key popped, which holds for Dijkstra-like
+ * searches. Bucket i holds the entries whose key first differs from the last popped key in
+ * bit i-1, so every entry moves down through at most 64 buckets.
+ *
+ * There is no decrease-key: a vertex is pushed again with its better key and the caller
+ * skips the stale entries when they come out.
+ */
+public class RadixHeap {
+
+    /** The number of buckets: one for keys equal to the last popped key and one per bit. */
+    private static final int NUM_BUCKETS = 65;
+
+    /** vertex[b] holds the vertex labels of the entries in bucket b. */
+    private int[][] vertex;
+
+    /** key[b] holds the keys of the entries in bucket b. */
+    private long[][] key;
+
+    /** size[b] is the number of entries in bucket b. */
+    private int[] size;
+
+    /** The last key popped. */
+    private long last;
+
+    /** The total number of entries. */
+    private int total;
+
+    /**
+     * Instantiates a new empty RadixHeap.
+     */
+    public RadixHeap() {
+        vertex = new int[NUM_BUCKETS][16];
+        key = new long[NUM_BUCKETS][16];
+        size = new int[NUM_BUCKETS];
+    }
+
+    /**
+     * Removes all entries and resets the last popped key to 0.
+     */
+    public void clear() {
+        Arrays.fill(size, 0);
+        last = 0;
+        total = 0;
+    }
+
+    /**
+     * Returns true if the heap has no entries.
+     * @return true, if the heap is empty
+     */
+    public boolean isEmpty() {
+        return total == 0;
+    }
+
+    /**
+     * Adds vertex v with key k, which must not be below the last key popped.
+     * @param v the vertex label
+     * @param k the key
+     */
+    public void push(int v, long k) {
+        add(bucketOf(k), v, k);
+        total++;
+    }
+
+    /**
+     * Gets the key of the entry returned by the last call to pop.
+     * @return the last key popped
+     */
+    public long lastKey() {
+        return last;
+    }
+
+    /**
+     * Removes an entry with the smallest key; its key can then be read with lastKey.
+     * @return the vertex label of the entry
+     */
+    public int pop() {
+        if (size[0] == 0) {
+            int b = 1;
+            while (size[b] == 0) {
+                b++;
+            }
+            // the smallest key of bucket b becomes the last key, and every entry of b
+            // then lands in a lower bucket
+            long min = key[b][0];
+            for (int i = 1; i < size[b]; i++) {
+                min = Math.min(min, key[b][i]);
+            }
+            last = min;
+            int count = size[b];
+            size[b] = 0;
+            for (int i = 0; i < count; i++) {
+                add(bucketOf(key[b][i]), vertex[b][i], key[b][i]);
+            }
+        }
+        total--;
+        return vertex[0][--size[0]];
+    }
+
+    /**
+     * Gets the bucket for key k relative to the last popped key.
+     * @param k the key
+     * @return the bucket index
+     */
+    private int bucketOf(long k) {
+        return k == last ? 0 : 64 - Long.numberOfLeadingZeros(k ^ last);
+    }
+
+    /**
+     * Appends an entry to bucket b, growing it if needed.
+     * @param b the bucket index
+     * @param v the vertex label
+     * @param k the key
+     */
+    private void add(int b, int v, long k) {
+        if (size[b] == vertex[b].length) {
+            vertex[b] = Arrays.copyOf(vertex[b], 2 * size[b]);
+            key[b] = Arrays.copyOf(key[b], 2 * size[b]);
+        }
+        vertex[b][size[b]] = v;
+        key[b][size[b]] = k;
+        size[b]++;
+    }
+}
@@ -7,126 +7,179 @@ import java.util.*;
  */
 public class ResidualGraph extends Network {
 
-    protected Edge [][] residualAdjMatrix;
+    /** The network this is the residual graph of. */
+    protected Network net;
+
+    /** networkArc[r] is the arc of net that residual edge r stands for: the forward arc of
+     *  the network edge for a forward residual edge, its reverse arc for a backward one. */
+    protected int [] networkArc;
+
+    /** The reusable queue, predecessor edges and path of the search. */
+    protected SearchState state;
+
+    /** Told about every search, or null. */
+    private SolverListener listener;
+
+    /** The number of vertices and arcs scanned by the last search. */
+    private int verticesScanned, arcsScanned;
 
-    protected ArrayList<LinkedList<Vertex>> residualAdjLists;
     /**
 	 * Instantiates a new ResidualGraph object.
 	 * Builds the residual graph corresponding to the given network net.
-	 * Residual graph has the same number of vertices as net.
+	 * Residual graph has the same number of vertices as net; its residual edges
+	 * are stored in the CSR arrays inherited from DirectedGraph.
 	 * @param net the network
 	 */
 	public ResidualGraph (Network net) throws Exception {
+		this(net, new SearchState(net.numVertices));
+	}
+
+    /**
+	 * Instantiates a new ResidualGraph object that searches with the given search state,
+	 * so that the search arrays can be reused by the residual graphs built one after
+	 * another while augmenting.
+	 * @param net the network
+	 * @param state the search state, for graphs with as many vertices as net
+	 */
+	public ResidualGraph (Network net, SearchState state) throws Exception {
 		super(net.numVertices);
-        // initialize residualAdjMatrix
-        residualAdjMatrix = new Edge [numVertices][numVertices];
-        residualAdjLists = new ArrayList<>();
-        for (int u = 0; u < numVertices; u++) {
-            residualAdjLists.add(new LinkedList<>());
-            for (int v = 0; v < numVertices; v++)
-                residualAdjMatrix[u][v] = null;
-        }
+        this.net = net;
+        this.state = state;
+        networkArc = new int [Math.max(16, 2 * net.numEdges)];
+        net.ensureCsr();
 
-        for (int u = 0; u < numVertices; u ++) {
-            LinkedList<Vertex> neighbors = net.getAdjList(getVertexByIndex(u));
-            for (int v = 0; v < neighbors.size(); v ++) {
-                Vertex currN = neighbors.get(v);
-                if (u != currN.getLabel() ) {
-                    Edge edge = net.getAdjMatrixEntry(getVertexByIndex(u), currN);
-                    //System.out.println("(u,v): (" + u + "," + currN.getLabel() + ") edge cap: " + edge.getCap() + " flow: " + edge.getFlow());
-                    setResidualEdges(edge);
-                }
+        for (int e = 0; e < net.numEdges; e ++) {
+            if (net.edgeSource[e] != net.edgeTarget[e]) {
+                setResidualEdges(net.getEdge(e));
             }
         }
 	}
 
+    /**
+     * Sets the listener told how much of the graph every search scanned.
+     * @param listener the listener, or null
+     */
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
     private void setResidualEdges(Edge e) {
         Vertex vu = e.getSourceVertex();
         Vertex vv = e.getTargetVertex();
+        // an edge of capacity 0 leaves nothing in the residual graph; a residual edge
+        // of capacity 0 would let the search find augmenting paths that move no flow
+        if (e.getCap() == 0) {
+            return;
+        }
         // residual edge is a backward edge and it is only 1:
         if (e.getFlow() == e.getCap()) {
             //System.out.println("f = c, backward edge");
-            Edge resBackEdge = new Edge(vv,vu,e.getFlow());
-            residualAdjMatrix[vv.getLabel()][vu.getLabel()] = resBackEdge;
-            residualAdjLists.get(vv.getLabel()).addLast(vu);
+            addResidualEdge(vv,vu,e.getFlow(),net.arcReverse[net.edgeArc[e.getIndex()]]);
         }
         // residual graph has forward edge with flow = cap - flow
         // residual graph has backward edge with flow = flow
         else if (e.getFlow() < e.getCap() && e.getFlow() > 0) {
             //System.out.println("f < c, and f > 0 backward and forward edge");
-            int newFlow = e.getCap() - e.getFlow();
-            Edge resForwEdge = new Edge(vu,vv,newFlow);
-            Edge resBackEdge = new Edge(vv,vu,e.getFlow());
-            residualAdjMatrix[vv.getLabel()][vu.getLabel()] = resBackEdge;
-            residualAdjMatrix[vu.getLabel()][vv.getLabel()] = resForwEdge;
-            residualAdjLists.get(vv.getLabel()).addLast(vu);
-            residualAdjLists.get(vu.getLabel()).addLast(vv);
+            long newFlow = e.getCap() - e.getFlow();
+            addResidualEdge(vu,vv,newFlow,net.edgeArc[e.getIndex()]);
+            addResidualEdge(vv,vu,e.getFlow(),net.arcReverse[net.edgeArc[e.getIndex()]]);
         }
         // residual edge is one forward edge
         else if (e.getFlow() == 0) {
             //System.out.println("f = 0, forward edge");
-            int newFlow = e.getCap();
-            Edge resForwEdge = new Edge(vu,vv,newFlow);
-            residualAdjMatrix[vu.getLabel()][vv.getLabel()] = resForwEdge;
-            residualAdjLists.get(vu.getLabel()).addLast(vv);
+            long newFlow = e.getCap();
+            addResidualEdge(vu,vv,newFlow,net.edgeArc[e.getIndex()]);
         }
     }
 
+    /**
+     * Adds residual edge (u,v) with residual capacity c standing for arc a of the network.
+     * @param u the source endpoint vertex
+     * @param v the target endpoint vertex
+     * @param c the residual capacity
+     * @param a the arc of the network
+     */
+    private void addResidualEdge(Vertex u, Vertex v, long c, int a) {
+        int r = newEdge(u.getLabel(), v.getLabel(), c);
+        networkArc[r] = a;
+    }
+
 	/**
 	 * Find an augmenting path if one exists.
 	 * Determines whether there is a directed path from the source to the sink in the residual
-	 * graph -- if so, return a linked list containing the edges in the augmenting path in the
-     * form (s,v_1), (v_1,v_2), ..., (v_{k-1},v_k), (v_k,t); if not, return an empty linked list.
-	 * @return the linked list
+	 * graph -- if so, the residual edges of the augmenting path, in the form
+     * (s,v_1), (v_1,v_2), ..., (v_{k-1},v_k), (v_k,t), are stored in the path array of the
+     * search state and can be read with getPathEdge.
+	 * @return the number of edges in the augmenting path, or 0 if there is none
 	 */
     // do bfs to find the shortest augmenting path
-	public LinkedList<Edge> findAugmentingPath () {
-        int[] pred = bfs(); // pred[i] takes the value of the label of the node that is before the node with label i in the search
-
-        // start from sink and backtrack until finding the source
-        LinkedList<Vertex> path = new LinkedList<>();
-        int currLabel = sinkLabel;
-        if (pred[currLabel] == -1) { // this means we didn't manage to reach the sink, i.e. there is no augm path
-            return null;
+	public int findAugmentingPath () {
+        bfs(); // the predecessor of every reached vertex is the residual edge into it
+
+        if (!state.isReached(sinkLabel)) { // this means we didn't manage to reach the sink, i.e. there is no augm path
+            if (listener != null) {
+                listener.searchFinished(verticesScanned, arcsScanned, 0);
+            }
+            return 0;
+        }
+        // start from sink and backtrack until finding the source, once to count the edges
+        // and once to store them
+        int length = 0;
+        for (int currLabel = sinkLabel; currLabel != sourceLabel; currLabel = edgeSource[state.getPred(currLabel)]) {
+            length++;
         }
-        while(currLabel != sourceLabel) {
-            path.addFirst(getVertexByIndex(currLabel));
-            currLabel = pred[currLabel];
+        int[] path = state.getPath();
+        int i = length;
+        for (int currLabel = sinkLabel; currLabel != sourceLabel; currLabel = edgeSource[state.getPred(currLabel)]) {
+            path[--i] = state.getPred(currLabel);
         }
-        path.addFirst(source);
-        LinkedList<Edge> augmPath = new LinkedList<>();
-        for (int u = 0, v = 1; u < path.size() - 1 && v < path.size(); u ++, v++) {
-            Vertex vu = path.get(u);
-            Vertex vv = path.get(v);
-            augmPath.add(residualAdjMatrix[vu.getLabel()][vv.getLabel()]);
+        if (listener != null) {
+            listener.searchFinished(verticesScanned, arcsScanned, length);
         }
-		return augmPath;
+		return length;
 	}
 
-    /** bfs modified to return an array of size numVertices,
-     * where the i-th entry of the array has the label of
-     * the predecessor node of the node labeled as i after breadth first search */
-    private int[] bfs() {
-        LinkedList<Vertex> q = new LinkedList<>();
-        int pred[] = new int[numVertices]; // the predecessor of each node during bfs
-        /**initialize pred, everything is -1 initially. THere is no entry for the source */
-        for (int i = 1; i < numVertices; i++) {
-            pred[i] = -1;
-        }
-        q.addLast(source);
+    /**
+     * Gets the i-th residual edge of the last augmenting path found.
+     * @param i the position on the path, 0 being the edge leaving the source
+     * @return the residual edge index
+     */
+    public int getPathEdge(int i) {
+        return state.getPath()[i];
+    }
+
+    /**
+     * Gets the arc of the network that residual edge r stands for, along which
+     * the flow is pushed when r is on an augmenting path.
+     * @param r the residual edge index
+     * @return the arc of the network
+     */
+    public int getNetworkArc(int r) {
+        return networkArc[r];
+    }
+
+    /** bfs from the source over the residual edges; the search state records, for
+     * every vertex reached, the residual edge through which it was first reached */
+    private void bfs() {
+        verticesScanned = 0;
+        arcsScanned = 0;
+        state.begin();
+        state.reach(sourceLabel, -1);
         /** classic bfs, with small modification */
-        while(q.size() > 0) {
-            Vertex currV = q.removeFirst();
-            LinkedList<Vertex> neighbors = residualAdjLists.get(currV.getLabel());
-            for (int j = 0; j < neighbors.size(); j++) {
-                Vertex v = neighbors.get(j);
-                if (pred[v.getLabel()] == -1) { // if the vertex is not visited yet
-                    pred[v.getLabel()] = currV.getLabel(); // this is the modification of bfs
-                    q.addLast(v);
+        while(state.hasNext()) {
+            int u = state.next();
+            verticesScanned++;
+            arcsScanned += getArcEnd(u) - getArcStart(u);
+            for (int a = getArcStart(u); a < getArcEnd(u); a++) {
+                if (!isForwardArc(a)) { // only the residual edges themselves are followed
+                    continue;
+                }
+                int v = arcTarget[a];
+                if (!state.isReached(v)) { // if the vertex is not visited yet
+                    state.reach(v, arcEdge[a]); // this is the modification of bfs
                 }
             }
         }
-        return pred;
     }
 
     private void printResG() {
@@ -149,7 +202,7 @@ public class ResidualGraph extends Network {
      * @return the adjacency list
      */
     public LinkedList<Vertex> getResAdjList(Vertex vv) {
-        return residualAdjLists.get(vv.getLabel());
+        return getAdjList(vv);
     }
 
     /**
@@ -158,7 +211,7 @@ public class ResidualGraph extends Network {
      * @return the adjacency list
      */
     public LinkedList<Vertex> getResAdjListByLabel(int v) {
-        return residualAdjLists.get(v);
+        return getAdjListByLabel(v);
     }
 
     /**
@@ -169,6 +222,6 @@ public class ResidualGraph extends Network {
      * @return the adjacency matrix entry
      */
     public Edge getResAdjMatrixEntry(Vertex uu, Vertex vv) {
-        return residualAdjMatrix[uu.getLabel()][vv.getLabel()];
+        return getAdjMatrixEntry(uu, vv);
     }
 }
@@ -0,0 +1,132 @@
+package networkFlow;
+import java.util.*;
+
+/**
+ * The Class SearchState.
+ * The arrays used by a search for an augmenting path: a ring queue of vertex labels, the
+ * predecessor (an arc or an edge, depending on the graph) through which every vertex was
+ * reached, and the path found. They are allocated once and reused by every search. Rather
+ * than clearing the predecessors before each search, every search starts a new epoch and a
+ * vertex counts as reached only if it is stamped with the current epoch, so starting a
+ * search takes O(1) time.
+ */
+public class SearchState {
+
+    /** The ring queue of vertex labels. */
+    private int[] queue;
+
+    /** The positions of the first and one past the last vertex of the queue. */
+    private int head, tail;
+
+    /** pred[v] is the arc or edge through which v was reached in the current epoch. */
+    private int[] pred;
+
+    /** stamp[v] is the epoch in which v was last reached. */
+    private int[] stamp;
+
+    /** The current epoch. */
+    private int epoch;
+
+    /** The arcs or edges of the last path found, from the source to the sink. */
+    private int[] path;
+
+    /**
+     * Instantiates a new SearchState object for graphs with n vertices.
+     * @param n the number of vertices
+     */
+    public SearchState(int n) {
+        queue = new int[n];
+        pred = new int[n];
+        stamp = new int[n];
+        path = new int[n];
+    }
+
+    /**
+     * Starts a new search: no vertex is reached and the queue is empty.
+     */
+    public void begin() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) { // only after ~2^31 searches
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        head = 0;
+        tail = 0;
+    }
+
+    /**
+     * Gets the current epoch; arrays kept alongside this one can be stamped with it.
+     * @return the current epoch
+     */
+    public int getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Returns true if v has been reached in the current search.
+     * @param v the vertex label
+     * @return true, if v is reached
+     */
+    public boolean isReached(int v) {
+        return stamp[v] == epoch;
+    }
+
+    /**
+     * Marks v as reached through p and adds it to the back of the queue.
+     * @param v the vertex label
+     * @param p the arc or edge through which v is reached, or -1 for the start vertex
+     */
+    public void reach(int v, int p) {
+        mark(v, p);
+        queue[tail] = v;
+        tail = tail + 1 == queue.length ? 0 : tail + 1;
+    }
+
+    /**
+     * Marks v as reached through p without queueing it, for searches that keep
+     * their own priority queue.
+     * @param v the vertex label
+     * @param p the arc or edge through which v is reached, or -1 for the start vertex
+     */
+    public void mark(int v, int p) {
+        stamp[v] = epoch;
+        pred[v] = p;
+    }
+
+    /**
+     * Returns true if the queue is not empty.
+     * @return true, if there is a vertex left to visit
+     */
+    public boolean hasNext() {
+        return head != tail;
+    }
+
+    /**
+     * Removes the vertex at the front of the queue.
+     * Every vertex is queued at most once per search, so the ring never overflows.
+     * @return the vertex label
+     */
+    public int next() {
+        int v = queue[head];
+        head = head + 1 == queue.length ? 0 : head + 1;
+        return v;
+    }
+
+    /**
+     * Gets the arc or edge through which v was reached in the current search.
+     * @param v the vertex label
+     * @return the predecessor of v
+     */
+    public int getPred(int v) {
+        return pred[v];
+    }
+
+    /**
+     * Gets the path array, which holds the arcs or edges of the last path found in
+     * its first entries. The array is reused by the next search.
+     * @return the path array
+     */
+    public int[] getPath() {
+        return path;
+    }
+}
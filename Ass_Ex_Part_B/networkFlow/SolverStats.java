@@ -0,0 +1,211 @@
+package networkFlow;
+import java.io.*;
+
+/**
+ * The Class SolverStats.
+ * A SolverListener that adds up what it is told: the time spent in every phase, the number
+ * and lengths of the augmenting paths, and the vertices and arcs scanned by the searches.
+ * The totals can be read while the solver runs or after, or printed as a summary.
+ */
+public class SolverStats implements SolverListener {
+
+    /** phaseStart[p] is System.nanoTime() when phase p last started. */
+    private long[] phaseStart = new long[SolverPhase.values().length];
+
+    /** phaseNanos[p] is the total time spent in phase p. */
+    private long[] phaseNanos = new long[SolverPhase.values().length];
+
+    /** phaseCount[p] is the number of times phase p has finished. */
+    private int[] phaseCount = new int[SolverPhase.values().length];
+
+    /** The numbers of bytes and lines read from the input. */
+    private long bytesRead;
+    private int linesRead;
+
+    /** The numbers of vertices and edges of the network read. */
+    private int numVertices, numEdges;
+
+    /** The number of searches for an augmenting path. */
+    private long searches;
+
+    /** The number of vertices and arcs scanned by all the searches. */
+    private long verticesScanned, arcsScanned;
+
+    /** The number of augmentations. */
+    private long augmentations;
+
+    /** The sum and the largest of the lengths of the augmenting paths. */
+    private long totalPathLength;
+    private int maxPathLength;
+
+    /** The total flow pushed along the augmenting paths. */
+    private long totalBottleneck;
+
+    /** Notes the time at which the phase started. */
+    public void phaseStarted(SolverPhase phase) {
+        phaseStart[phase.ordinal()] = System.nanoTime();
+    }
+
+    /** Adds the time since the phase started to its total. */
+    public void phaseFinished(SolverPhase phase) {
+        phaseNanos[phase.ordinal()] += System.nanoTime() - phaseStart[phase.ordinal()];
+        phaseCount[phase.ordinal()]++;
+    }
+
+    /** Notes the size of the input and of the network. */
+    public void networkRead(long bytesRead, int linesRead, int numVertices, int numEdges) {
+        this.bytesRead = bytesRead;
+        this.linesRead = linesRead;
+        this.numVertices = numVertices;
+        this.numEdges = numEdges;
+    }
+
+    /** Adds the vertices and arcs scanned by the search to the totals. */
+    public void searchFinished(int verticesScanned, int arcsScanned, int pathLength) {
+        searches++;
+        this.verticesScanned += verticesScanned;
+        this.arcsScanned += arcsScanned;
+    }
+
+    /** Adds the augmenting path to the totals. */
+    public void augmented(int pathLength, long bottleneck) {
+        augmentations++;
+        totalPathLength += pathLength;
+        maxPathLength = Math.max(maxPathLength, pathLength);
+        totalBottleneck += bottleneck;
+    }
+
+    /**
+     * Gets the total time spent in a phase.
+     * @param phase the phase
+     * @return the time in nanoseconds
+     */
+    public long getPhaseNanos(SolverPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Gets the number of times a phase has finished.
+     * @param phase the phase
+     * @return the number of times
+     */
+    public int getPhaseCount(SolverPhase phase) {
+        return phaseCount[phase.ordinal()];
+    }
+
+    /**
+     * Gets the number of bytes read from the input.
+     * @return the number of bytes
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Gets the number of lines read from the input.
+     * @return the number of lines
+     */
+    public int getLinesRead() {
+        return linesRead;
+    }
+
+    /**
+     * Gets the number of vertices of the network read.
+     * @return the number of vertices
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Gets the number of edges of the network read.
+     * @return the number of edges
+     */
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Gets the number of searches for an augmenting path.
+     * @return the number of searches
+     */
+    public long getSearches() {
+        return searches;
+    }
+
+    /**
+     * Gets the number of vertices scanned by all the searches.
+     * @return the number of vertices
+     */
+    public long getVerticesScanned() {
+        return verticesScanned;
+    }
+
+    /**
+     * Gets the number of arcs scanned by all the searches.
+     * @return the number of arcs
+     */
+    public long getArcsScanned() {
+        return arcsScanned;
+    }
+
+    /**
+     * Gets the number of augmentations.
+     * @return the number of augmentations
+     */
+    public long getAugmentations() {
+        return augmentations;
+    }
+
+    /**
+     * Gets the sum of the lengths of the augmenting paths.
+     * @return the total number of arcs augmented along
+     */
+    public long getTotalPathLength() {
+        return totalPathLength;
+    }
+
+    /**
+     * Gets the length of the longest augmenting path.
+     * @return the number of arcs on it
+     */
+    public int getMaxPathLength() {
+        return maxPathLength;
+    }
+
+    /**
+     * Gets the total flow pushed along the augmenting paths.
+     * @return the total of the bottlenecks
+     */
+    public long getTotalBottleneck() {
+        return totalBottleneck;
+    }
+
+    /**
+     * Prints a summary: the size of the input, the time of every phase that ran, then the augmentations and the
+     * searches if there were any.
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+        out.println("Input: " + bytesRead + " bytes in " + linesRead + " lines, "
+                + numVertices + " vertices and " + numEdges + " edges");
+        for (SolverPhase phase : SolverPhase.values()) {
+            int count = phaseCount[phase.ordinal()];
+            if (count > 0) {
+                out.print(phase.getName() + ": " + String.format("%.3f", phaseNanos[phase.ordinal()] / 1e6) + " ms");
+                out.println(count > 1 ? " in " + count + " runs" : "");
+            }
+        }
+        if (augmentations > 0) {
+            out.println("Augmenting paths: " + augmentations
+                    + ", mean length " + String.format("%.2f", (double) totalPathLength / augmentations)
+                    + ", longest " + maxPathLength
+                    + ", flow pushed " + totalBottleneck);
+        }
+        if (searches > 0) {
+            out.println("Searches: " + searches
+                    + ", vertices scanned " + verticesScanned
+                    + ", arcs scanned " + arcsScanned);
+        }
+    }
+}
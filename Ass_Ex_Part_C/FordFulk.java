@@ -19,6 +19,35 @@ public class FordFulk {
     private int numProjects;
 
     private int numLecturers;
+
+	/** If true, a new residual graph is built for every augmenting path
+	 *  instead of reading residual capacities from net in place. */
+	private boolean rebuildResidual;
+
+	/** The algorithm used to find a maximum flow. */
+	private Algorithm algorithm = Algorithm.EDMONDS_KARP;
+
+	/** The algorithm that is run: algorithm, or with Algorithm.AUTO the one chosen for net. */
+	private Algorithm engine;
+
+	/** The analysis of net that engine was chosen from, or null if it was not chosen automatically. */
+	private NetworkAnalyser analysis;
+
+	/** The number of augmenting paths used to find the flow. */
+	private int numAugmentations;
+
+	/** If true, the flow is validated with ranges of vertices checked in parallel. */
+	private boolean parallelCheck;
+
+	/** If true, augmenting paths are searched for level by level in parallel. */
+	private boolean parallelSearch;
+
+	/** The format in which the results are written to standard output. */
+	private OutputFormat outputFormat = OutputFormat.TEXT;
+
+	/** Told about the phases, searches and augmentations of the run, or null. */
+	private SolverListener listener;
+
 	/**
 	 * Instantiates a new FordFulk object.
 	 * @param s the name of the input file
@@ -27,40 +56,157 @@ public class FordFulk {
 		filename = s; // store name of input file
 	}
 
+	/**
+	 * Chooses between rebuilding the residual graph for every augmenting path
+	 * and updating residual capacities in place (the default).
+	 * @param rebuild true to rebuild the residual graph for every augmenting path
+	 */
+	public void setRebuildResidual(boolean rebuild) {
+		rebuildResidual = rebuild;
+	}
+
+	/**
+	 * Chooses the algorithm used to find a maximum flow; with Algorithm.AUTO it is chosen
+	 * from an analysis of the network once the network has been read.
+	 * @param a the algorithm
+	 */
+	public void setAlgorithm(Algorithm a) {
+		algorithm = a;
+	}
+
+	/**
+	 * Chooses between validating the flow with ranges of vertices checked in parallel
+	 * and checking every vertex on this thread (the default).
+	 * @param parallel true to validate the flow in parallel
+	 */
+	public void setParallelCheck(boolean parallel) {
+		parallelCheck = parallel;
+	}
+
+	/**
+	 * Chooses between searching for augmenting paths breadth first on one thread (the
+	 * default) and level by level in parallel, which only pays on very large networks.
+	 * Used by the shortest augmenting path and capacity scaling algorithms.
+	 * @param parallel true to search in parallel
+	 */
+	public void setParallelSearch(boolean parallel) {
+		parallelSearch = parallel;
+	}
+
+	/**
+	 * Chooses the format in which the results are written: the sentences of TEXT (the
+	 * default), or the bare records of CSV or JSON_LINES for other programs to read.
+	 * @param format the output format
+	 */
+	public void setOutputFormat(OutputFormat format) {
+		outputFormat = format;
+	}
+
+	/**
+	 * Sets the listener told how long every phase of the run takes and about the searches
+	 * and augmentations of the algorithms that augment path by path.
+	 * @param l the listener, or null for none (the default)
+	 */
+	public void setListener(SolverListener l) {
+		listener = l;
+	}
+
+	/**
+	 * Gets the listener told about the run.
+	 * @return the listener, or null
+	 */
+	public SolverListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Gets the number of augmenting paths used to find the flow.
+	 * @return the number of augmenting paths
+	 */
+	public int getNumAugmentations() {
+		return numAugmentations;
+	}
+
+	/**
+	 * Gets the algorithm used to find a maximum flow. With Algorithm.AUTO this is the
+	 * algorithm chosen for the network, once fordFulkerson has run.
+	 * @return the algorithm
+	 */
+	public Algorithm getAlgorithm() {
+		return engine != null ? engine : algorithm;
+	}
+
+	/**
+	 * Gets the analysis of the network the algorithm was chosen from.
+	 * @return the analysis, or null if the algorithm was not chosen automatically
+	 */
+	public NetworkAnalyser getAnalysis() {
+		return analysis;
+	}
+
+	/**
+	 * Gets the network read from the input file.
+	 * @return the network
+	 */
+	public Network getNetwork() {
+		return net;
+	}
+
 	/**
 	 * Read in network from file.
 	 * See assessed exercise specification for the file format.
+	 * Exits if the file cannot be read or does not hold a network in that format.
 	 */
 	public void readNetworkFromFile() {
-		FileReader fr = null;
+		try {
+			readNetwork();
+		}
+		catch (IOException e) {
+			System.err.println("IO error:");
+			System.err.println(e);
+			System.exit(1);
+		}
+		catch (NumberFormatException e) {
+			System.err.println("Format error:");
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Read in network from file, as readNetworkFromFile does, but leave an error
+	 * reading the file to the caller.
+	 * @throws IOException if the file cannot be read
+	 */
+	public void readNetwork() throws IOException {
+		startPhase(SolverPhase.PARSE);
+		ByteTokenizer in = null;
 		// open file with name given by filename
 		try {
-			try {
-				fr = new FileReader (filename);
-				Scanner in = new Scanner (fr);
-
-				// get number of vertices
-				String line = in.nextLine();
-				numStudents = Integer.parseInt(line);
-                line = in.nextLine();
-                numProjects = Integer.parseInt(line);
-                line = in.nextLine();
-                numLecturers = Integer.parseInt(line);
+			in = new ByteTokenizer (filename);
+
+			// get number of vertices
+			numStudents = in.nextInt();
+                in.nextLine();
+                numProjects = in.nextInt();
+                in.nextLine();
+                numLecturers = in.nextInt();
+                in.nextLine();
 
                 int numVertices = numStudents + numProjects + numLecturers + 2; // +1 for source and +1 for sink
-				// create new network with desired number of vertices
-				net = new Network (numVertices);
-
-				// process the students
-				for (int i = 1; i <= numStudents; i++) { // every Student id is between 1 and numb of students
-                    line = in.nextLine();
-                    String [] tokens = line.split(" ");
-                    String isSE = tokens[1];
+			// create new network with desired number of vertices
+			net = new Network (numVertices);
+
+			// process the students
+			for (int i = 1; i <= numStudents; i++) { // every Student id is between 1 and numb of students
+                    in.nextInt(); // the id, which is i
+                    boolean isSE = in.nextFlag();
                     ArrayList<Integer> choices = new ArrayList<>();
-                    for (int j = 2; j < tokens.length; j++) {
-                        int projectId = Integer.parseInt(tokens[j]) + numStudents;
+                    while (in.hasNextOnLine()) {
+                        int projectId = in.nextInt() + numStudents;
                         choices.add(projectId);
                     }
+                    in.nextLine();
                     Student si = new Student(i, isSE, choices);
                     net.addToVertices(si);
                     Vertex source = net.getSource();
@@ -70,12 +216,11 @@ public class FordFulk {
                 // process the projects
                 // every Project id is between (numb of students) and (numb of students + numb of projects)
                 for (int i = 1; i <= numProjects; i++) {
-                    line = in.nextLine();
-                    String[] tokens = line.split(" ");
-                    String isSE = tokens[1];
-                    int proposedBy = Integer.parseInt(tokens[2]);
-                    //Vertex lecturer = net.getVertexByIndex(Integer.parseInt(tokens[2]) + numStudents + numProjects);
-                    int capacity = Integer.parseInt(tokens[3]);
+                    in.nextInt(); // the id, which is i
+                    boolean isSE = in.nextFlag();
+                    int proposedBy = in.nextInt();
+                    int capacity = in.nextInt();
+                    in.nextLine();
                     Project proji = new Project(i + numStudents, isSE, capacity, proposedBy);
                     net.addToVertices(proji);
                 }
@@ -88,12 +233,15 @@ public class FordFulk {
                     Vertex s =  net.getVertexByIndex(i);
                     if (s instanceof Student) {
                         Student si = (Student) s;
-                        for (Integer projID: si.getChoices()) {
-                            Vertex pj = net.getVertexByIndex(projID);
+                        ArrayList<Integer> choices = si.getChoices();
+                        for (int rank = 1; rank <= choices.size(); rank++) {
+                            Vertex pj = net.getVertexByIndex(choices.get(rank - 1));
                             if (pj instanceof Project){
                                 Project p = (Project) pj;
                                 if ((si.isSE() && p.isSE()) || (!si.isSE())) {
                                     net.addEdge(si, p, 1);
+                                    // the cost is the rank, so a cheapest flow prefers earlier choices
+                                    net.setEdgeCost(net.getNumEdges() - 1, rank);
                                 }
                             }
                         }
@@ -103,15 +251,15 @@ public class FordFulk {
                 // process the lecturers
                 // // every Lecturer id is between (numb of students + numb of projects) and (numb of students + numb of projects + numb of lecturers)
                 for (int i = 1; i <= numLecturers; i++) {
-                    line = in.nextLine();
-                    String[] tokens = line.split(" ");
-                    int lquota = Integer.parseInt(tokens[1]); // the min number of students the lecturer must supervise
-                    int uquota = Integer.parseInt(tokens[2]); // the max number of students the lecturer can supervise
+                    in.nextInt(); // the id, which is i
+                    int lquota = in.nextInt(); // the min number of students the lecturer must supervise
+                    int uquota = in.nextInt(); // the max number of students the lecturer can supervise
+                    in.nextLine();
                     Lecturer lecturer = new Lecturer(i + numProjects + numStudents, uquota, lquota);
                     net.addToVertices(lecturer); // add instance to vertices
                     Vertex sink = net.getSink();
-                    // set the capacity to lower quota initially
-                    net.addEdge(lecturer, sink, lquota); // connect lecturer to the sink vertex.
+                    // the lecturer must take between lquota and uquota students
+                    net.addEdge(lecturer, sink, lquota, uquota); // connect lecturer to the sink vertex.
                 }
 
                 /**
@@ -130,91 +278,294 @@ public class FordFulk {
                     }
                 }
 
-			}
-			finally { 
-				if (fr!=null) fr.close();
+			if (listener != null) {
+				listener.networkRead(in.getBytesRead(), in.getLinesRead(), net.getNumVertices(), net.getNumEdges());
 			}
 		}
-		catch (IOException e) {
-			System.err.println("IO error:");
-			System.err.println(e);
-			System.exit(1);
+		finally { 
+			if (in!=null) in.close();
 		}
+		finishPhase(SolverPhase.PARSE);
 	}
 
 	/**
 	 * Executes Ford-Fulkerson algorithm on the constructed network net.
+	 * The lecturer lower quotas are lower bounds on the edges into the sink, so a flow
+	 * meeting them is found first in the demand network of LowerBounds, and only then
+	 * is the flow maximised, on net itself with the lower bounds shifted out.
+	 * @return true, if a flow meeting all the lower quotas exists; net then holds a
+	 * maximum such flow
 	 */
-	public boolean fordFulkerson(int initFlow) throws Exception {
-        int newFlow=initFlow;
-        if (newFlow == 0) {
-            // initialization step; set the flow everywhere to 0 initially
-            for (int v = 0; v < net.getNumVertices(); v++) {
-                Vertex vv = net.getVertexByIndex(v);
-                for (int u = 0; u < net.getNumVertices(); u++) {
-                    Vertex vu = net.getVertexByIndex(u);
-                    Edge e = net.getAdjMatrixEntry(vv, vu);
-                    if (e != null) {
-                        e.setFlow(newFlow);
-                    }
-                }
-            }
+	public boolean fordFulkerson() throws Exception {
+        long newFlow = 0;
+        numAugmentations = 0;
+        // initialization step; set the flow everywhere to 0 initially
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            net.setEdgeFlow(e, newFlow);
+        }
+        chooseEngine();
+
+        startPhase(SolverPhase.SOLVE);
+        if (!net.hasLowerBounds()) { // the zero flow meets every bound already
+            maximiseFlow(net, engine);
+            finishPhase(SolverPhase.SOLVE);
+            return true;
         }
-        else if (newFlow == -1) {
-            newFlow = net.getValue();
-            System.out.println("hahahahhss " + newFlow);
-            for (int i = 1; i <= numLecturers; i++) {
-                Lecturer lecturer = (Lecturer) net.getVertexByIndex(i + numProjects + numStudents);
-                int uquota = lecturer.getUquota();
-                net.addToVertices(lecturer); // add instance to vertices
-                Vertex sink = net.getSink();
-                // set the capacity to upper quota during the second run of the algorithm
-                Edge e = net.getAdjMatrixEntry(lecturer,sink);
-                e.setCap(uquota);
+
+        LowerBounds bounds = new LowerBounds(net);
+        if (engine == Algorithm.MIN_COST) {
+            // a cheapest flow in the demand network is a cheapest flow meeting the bounds,
+            // and its potentials carry over to the shifted network
+            startPhase(SolverPhase.LOWER_QUOTAS);
+            MinCostFlow feasible = new MinCostFlow(bounds.getDemandNetwork());
+            numAugmentations += feasible.maxFlow();
+            finishPhase(SolverPhase.LOWER_QUOTAS);
+            if (!bounds.isFeasible()) {
+                finishPhase(SolverPhase.SOLVE);
+                return false;
             }
+            startPhase(SolverPhase.UPPER_QUOTAS);
+            bounds.shift();
+            numAugmentations += new MinCostFlow(net, bounds.getNetworkPotentials(feasible.getPotentials())).maxFlow();
+            bounds.unshift();
+            finishPhase(SolverPhase.UPPER_QUOTAS);
+            finishPhase(SolverPhase.SOLVE);
+            return true;
+        }
+        // the demand network is not layered by student, project and lecturer, and any
+        // flow meeting the bounds will do, as cost scaling then finds the cheapest
+        Algorithm feasibility = engine == Algorithm.HOPCROFT_KARP || engine == Algorithm.COST_SCALING
+                ? Algorithm.DINIC : engine;
+        startPhase(SolverPhase.LOWER_QUOTAS);
+        maximiseFlow(bounds.getDemandNetwork(), feasibility);
+        finishPhase(SolverPhase.LOWER_QUOTAS);
+        if (!bounds.isFeasible()) {
+            finishPhase(SolverPhase.SOLVE);
+            return false;
+        }
+        startPhase(SolverPhase.UPPER_QUOTAS);
+        bounds.shift();
+        maximiseFlow(net, engine);
+        bounds.unshift();
+        finishPhase(SolverPhase.UPPER_QUOTAS);
+        finishPhase(SolverPhase.SOLVE);
+        return true;
+	}
 
+    /**
+     * Sets engine to the chosen algorithm or, with Algorithm.AUTO, to the one the analysis
+     * of net picks.
+     */
+    private void chooseEngine() {
+        engine = algorithm;
+        analysis = null;
+        if (algorithm == Algorithm.AUTO) {
+            startPhase(SolverPhase.ANALYSE);
+            analysis = new NetworkAnalyser(net);
+            engine = analysis.getChoice();
+            finishPhase(SolverPhase.ANALYSE);
         }
+    }
+
+    /**
+     * Increases the flow of g to a maximum flow using the given algorithm.
+     * @param g the network, net or a network derived from it
+     * @param a the algorithm
+     */
+    private void maximiseFlow(Network g, Algorithm a) throws Exception {
+        switch (a) {
+            case DINIC:
+                new Dinic(g).maxFlow();
+                break;
+            case CAPACITY_SCALING:
+                augmentWithScaling(g);
+                break;
+            case FATTEST_PATH:
+                augmentWidest(g);
+                break;
+            case PUSH_RELABEL:
+                new PushRelabel(g).maxFlow();
+                break;
+            case PARALLEL_PUSH_RELABEL:
+                new ParallelPushRelabel(g).maxFlow();
+                break;
+            case HOPCROFT_KARP:
+                new HopcroftKarp(g, numStudents, numProjects, numLecturers).maxFlow();
+                break;
+            case MIN_COST:
+                numAugmentations += new MinCostFlow(g).maxFlow();
+                break;
+            case COST_SCALING:
+                new CostScaling(g).maxFlow();
+                break;
+            default:
+                if (rebuildResidual) {
+                    augmentWithRebuiltResidual(g);
+                }
+                else {
+                    augmentInPlace(g);
+                }
+        }
+    }
+
+    /**
+     * Augments the flow until no augmenting path exists,
+     * building a new residual graph for every augmenting path.
+     * @param g the network
+     */
+    private void augmentWithRebuiltResidual(Network g) throws Exception {
+        long newFlow;
+        SearchState state = new SearchState(g.getNumVertices()); // shared by every residual graph
         for(;;){ // while an augmenting path exists
-            ResidualGraph resG = new ResidualGraph(net); // construct the residual graph
-            LinkedList<Edge> augmPath = resG.findAugmentingPath();
-            if (augmPath == null) { // if there is no augm path, then we have found the max flow
+            startPhase(SolverPhase.RESIDUAL_BUILD);
+            ResidualGraph resG = new ResidualGraph(g, state); // construct the residual graph
+            finishPhase(SolverPhase.RESIDUAL_BUILD);
+            resG.setListener(listener);
+            int length = resG.findAugmentingPath();
+            if (length == 0) { // if there is no augm path, then we have found the max flow
                 break;
             }
             else {
-                newFlow = minC(augmPath); // the minimum of the cap of all edges in the augm path
-                for (int i = 0; i < augmPath.size(); i++) {
+                newFlow = minC(resG, length); // the minimum of the cap of all edges in the augm path
+                for (int i = 0; i < length; i++) {
                     // set the corresponding edges with the new flow:
-                    net.updateFlow(augmPath.get(i),newFlow);
+                    g.updateFlow(resG.getNetworkArc(resG.getPathEdge(i)), newFlow);
                 }
+                countAugmentation(length, newFlow);
             }
         }
+    }
 
-        int minFlow = minAllowedFlow();
+    /**
+     * Augments the flow until no augmenting path exists, reading residual capacities
+     * directly from g so that nothing is rebuilt or allocated between augmentations.
+     * @param g the network
+     */
+    private void augmentInPlace(Network g) {
+        LiveResidualGraph resG = new LiveResidualGraph(g);
+        resG.setListener(listener);
+        resG.setParallel(parallelSearch);
+        for(;;){ // while an augmenting path exists
+            int length = resG.findAugmentingPath();
+            if (length == 0) { // if there is no augm path, then we have found the max flow
+                break;
+            }
+            long newFlow = minC(g, resG, length); // the minimum residual cap along the augm path
+            for (int i = 0; i < length; i++) {
+                g.updateFlow(resG.getPathArc(i), newFlow);
+            }
+            countAugmentation(length, newFlow);
+        }
+    }
 
-        if (net.getValue() < minFlow) {
-            return false;
+    /**
+     * Capacity scaling: augments only along paths whose arcs all have residual capacity
+     * at least delta, starting with the largest power of two not above the largest edge
+     * capacity and halving delta whenever no such path is left. This takes O(m log U)
+     * augmentations, however large the value of the flow.
+     * @param g the network
+     */
+    private void augmentWithScaling(Network g) {
+        long maxCap = 0;
+        for (int e = 0; e < g.getNumEdges(); e++) {
+            maxCap = Math.max(maxCap, g.getEdgeCap(e));
         }
-        else{
-            return true;
+        LiveResidualGraph resG = new LiveResidualGraph(g);
+        resG.setListener(listener);
+        resG.setParallel(parallelSearch);
+        for (long delta = Long.highestOneBit(maxCap); delta >= 1; delta /= 2) {
+            for(;;){ // while an augmenting path of width delta exists
+                int length = resG.findAugmentingPath(delta);
+                if (length == 0) {
+                    break;
+                }
+                long newFlow = minC(g, resG, length);
+                for (int i = 0; i < length; i++) {
+                    g.updateFlow(resG.getPathArc(i), newFlow);
+                }
+                countAugmentation(length, newFlow);
+            }
         }
-	}
+    }
+
+    /**
+     * Augments the flow along the augmenting path with the largest bottleneck capacity
+     * until no augmenting path exists. Each path moves as much flow as any single path
+     * can, which on networks with large capacities needs far fewer augmentations than
+     * shortest paths.
+     * @param g the network
+     */
+    private void augmentWidest(Network g) {
+        LiveResidualGraph resG = new LiveResidualGraph(g);
+        resG.setListener(listener);
+        for(;;){ // while an augmenting path exists
+            int length = resG.findWidestPath();
+            if (length == 0) {
+                break;
+            }
+            long newFlow = minC(g, resG, length);
+            for (int i = 0; i < length; i++) {
+                g.updateFlow(resG.getPathArc(i), newFlow);
+            }
+            countAugmentation(length, newFlow);
+        }
+    }
+
+    /**
+     * Counts an augmentation along a path and tells the listener about it.
+     * @param length the number of arcs on the path
+     * @param newFlow the flow pushed along it
+     */
+    private void countAugmentation(int length, long newFlow) {
+        numAugmentations++;
+        if (listener != null) {
+            listener.augmented(length, newFlow);
+        }
+    }
 
-    public int minAllowedFlow(){
-        int mini = 0;
-        for (int i = numStudents+numProjects+1; i <= numStudents+numProjects+numLecturers; i++ ) {
-            Lecturer lec = (Lecturer)net.getVertexByIndex(i);
-            mini = mini + lec.getLquota();
+    /**
+     * Tells the listener, if any, that a phase has started.
+     * @param phase the phase
+     */
+    private void startPhase(SolverPhase phase) {
+        if (listener != null) {
+            listener.phaseStarted(phase);
+        }
+    }
+
+    /**
+     * Tells the listener, if any, that a phase has finished.
+     * @param phase the phase
+     */
+    private void finishPhase(SolverPhase phase) {
+        if (listener != null) {
+            listener.phaseFinished(phase);
         }
-        return mini;
     }
 
     /**
-     * Finds the minimum flow of all edges specified in the @param
+     * Finds the minimum residual capacity of the arcs of the augmenting path
+     * last found by resG, which has the given length.
      * */
-    private int minC(LinkedList<Edge> edges) {
-        int minCapacity = edges.get(0).getCap();
-        for (int i = 1; i < edges.size(); i++) {
-            int currCapacity = edges.get(i).getCap();
+    private long minC(Network g, LiveResidualGraph resG, int length) {
+        long minCapacity = g.getResidualCap(resG.getPathArc(0));
+        for (int i = 1; i < length; i++) {
+            long currCapacity = g.getResidualCap(resG.getPathArc(i));
+            if (currCapacity < minCapacity) {
+                minCapacity = currCapacity;
+            }
+        }
+        return minCapacity;
+    }
+
+    /**
+     * Finds the minimum capacity of the residual edges of the augmenting path
+     * last found in resG, which has the given length.
+     * */
+    private long minC(ResidualGraph resG, int length) {
+        long minCapacity = resG.getEdgeCap(resG.getPathEdge(0));
+        for (int i = 1; i < length; i++) {
+            long currCapacity = resG.getEdgeCap(resG.getPathEdge(i));
             if (currCapacity < minCapacity) {
                 minCapacity = currCapacity;
             }
@@ -222,14 +573,53 @@ public class FordFulk {
         return minCapacity;
     }
 
+	/**
+	 * Print a minimum cut of the maximum flow found, naming the project and lecturer
+	 * capacities that are binding.
+	 * It goes to standard error unless the flow is written as text.
+	 */
+	public void printMinCut() {
+		PrintStream out = System.err; // apart from the records of the other formats
+		if (outputFormat == OutputFormat.TEXT) {
+			out = System.out;
+			out.println(); // after the flow
+		}
+		net.printMinCut(new MinCut(net), numStudents, numProjects, numLecturers, out);
+	}
+
 	/**
 	 * Print the results of the execution of the Ford-Fulkerson algorithm.
+	 * The assignment is streamed through a buffered writer; for CSV and JSON_LINES only its
+	 * records are written, and an invalid flow is reported on standard error.
 	 */
-	public void printResults() {
-		if (net.isFlow()) {
-			net.printFlow(numStudents, numProjects, numLecturers);
+	public void printResults() throws IOException {
+		System.out.flush(); // whatever went through System.out must come out first
+		ByteWriter out = ByteWriter.toStandardOutput();
+		printResults(out);
+		out.flush();
+	}
+
+	/**
+	 * Write the results of the execution of the Ford-Fulkerson algorithm, as printResults
+	 * does, to the given writer.
+	 * @param out the writer, which is left unflushed
+	 */
+	public void printResults(ByteWriter out) throws IOException {
+		startPhase(SolverPhase.VALIDATE);
+		boolean valid = net.isFlow(parallelCheck);
+		finishPhase(SolverPhase.VALIDATE);
+		if (valid) {
+			startPhase(SolverPhase.OUTPUT);
+			net.writeFlow(out, outputFormat, numStudents, numProjects, numLecturers);
+			if (getAlgorithm().minimisesCost() && outputFormat == OutputFormat.TEXT) {
+				out.println();
+				out.print("Total rank of the assigned projects: ").print(net.getCost()).println();
+			}
+			finishPhase(SolverPhase.OUTPUT);
 		}
+		else if (outputFormat == OutputFormat.TEXT)
+			out.println("The assignment is not a valid flow");
 		else
-			System.out.println("The assignment is not a valid flow");
+			System.err.println("The assignment is not a valid flow");
 	}
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package networkFlow;
+
+/**
+ * The Enum Algorithm.
+ * The maximum flow algorithms that can be run on a network.
+ */
+public enum Algorithm {
+
+    /** Shortest augmenting paths found by breadth first search (the default). */
+    EDMONDS_KARP("ek", true),
+
+    /** Blocking flows along the shortest paths of the level graph. */
+    DINIC("dinic", false),
+
+    /** Augmenting paths restricted to residual capacity at least delta, halving delta per phase. */
+    CAPACITY_SCALING("scaling", true),
+
+    /** Augmenting paths of largest bottleneck capacity, found by a Dijkstra-like search. */
+    FATTEST_PATH("fattest", true),
+
+    /** FIFO push-relabel with global relabelling and the gap heuristic. */
+    PUSH_RELABEL("push-relabel", false),
+
+    /** Push-relabel on several threads, discharging the active vertices in parallel rounds. */
+    PARALLEL_PUSH_RELABEL("parallel-push-relabel", false),
+
+    /** Phases of shortest augmenting paths over the student, project and lecturer layers. */
+    HOPCROFT_KARP("hopcroft-karp", false),
+
+    /** Cheapest augmenting paths found by Dijkstra's algorithm on reduced costs, giving a
+     *  maximum flow of least total cost. */
+    MIN_COST("min-cost", true, true),
+
+    /** A maximum flow by Dinic's algorithm, whose cost is then brought down to the least
+     *  by Goldberg and Tarjan's cost scaling push-relabel algorithm. */
+    COST_SCALING("cost-scaling", false, true),
+
+    /** One of the maximum flow algorithms above, chosen by NetworkAnalyser from the shape of the network. */
+    AUTO("auto", false);
+
+    /** The name used to select the algorithm on the command line. */
+    private String name;
+
+    /** True if the algorithm augments the flow along one path at a time. */
+    private boolean augmentsByPath;
+
+    /** True if the algorithm finds a maximum flow of least cost. */
+    private boolean minimisesCost;
+
+    /**
+     * Instantiates a new algorithm constant that ignores edge costs.
+     * @param name the command line name
+     * @param augmentsByPath true if the algorithm augments along one path at a time
+     */
+    Algorithm(String name, boolean augmentsByPath) {
+        this(name, augmentsByPath, false);
+    }
+
+    /**
+     * Instantiates a new algorithm constant.
+     * @param name the command line name
+     * @param augmentsByPath true if the algorithm augments along one path at a time
+     * @param minimisesCost true if the algorithm finds a maximum flow of least cost
+     */
+    Algorithm(String name, boolean augmentsByPath, boolean minimisesCost) {
+        this.name = name;
+        this.augmentsByPath = augmentsByPath;
+        this.minimisesCost = minimisesCost;
+    }
+
+    /**
+     * Gets the command line name of the algorithm.
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns true if the algorithm augments the flow along one path at a time,
+     * so that the number of augmenting paths it used is worth reporting.
+     * @return true, if the algorithm augments path by path
+     */
+    public boolean augmentsByPath() {
+        return augmentsByPath;
+    }
+
+    /**
+     * Returns true if the algorithm finds a maximum flow of least cost,
+     * so that the cost of the flow is worth reporting.
+     * @return true, if the algorithm minimises cost
+     */
+    public boolean minimisesCost() {
+        return minimisesCost;
+    }
+
+    /**
+     * Finds the algorithm with the given command line name.
+     * @param name the command line name
+     * @return the algorithm, or null if there is none with that name
+     */
+    public static Algorithm byName(String name) {
+        for (Algorithm a : values()) {
+            if (a.name.equals(name)) {
+                return a;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,184 @@
+package networkFlow;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+/**
+ * The Class ByteWriter.
+ * Writes text output straight into the bytes of a large buffer that is drained to a channel
+ * only when full, the writing counterpart of ByteTokenizer. Integers are formatted digit by
+ * digit into the buffer, so writing a line makes no String and no system call.
+ *
+ * Only ASCII text is written; every char of a String is written as one byte.
+ */
+public class ByteWriter implements Closeable, Flushable {
+
+    /** The size of the write buffer in bytes. */
+    private static final int BUFFER_SIZE = 1 << 18;
+
+    /** The digits of Long.MIN_VALUE, which cannot be negated. */
+    private static final String MIN_LONG = "-9223372036854775808";
+
+    /** The channel the output is written to. */
+    private WritableByteChannel channel;
+
+    /** The write buffer and its ByteBuffer view for the channel. */
+    private byte[] buf;
+    private ByteBuffer wrapped;
+
+    /** The position of the next free byte in buf. */
+    private int pos;
+
+    /** The number of bytes written so far, buffered or not. */
+    private long bytesWritten;
+
+    /**
+     * Instantiates a new ByteWriter writing to the given channel.
+     * @param channel the channel
+     */
+    public ByteWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        buf = new byte[BUFFER_SIZE];
+        wrapped = ByteBuffer.wrap(buf);
+    }
+
+    /**
+     * Instantiates a new ByteWriter writing to standard output. Anything already written
+     * through System.out must have been flushed first.
+     * @return the writer
+     */
+    public static ByteWriter toStandardOutput() {
+        return new ByteWriter(new FileOutputStream(FileDescriptor.out).getChannel());
+    }
+
+    /**
+     * Makes room for n more bytes in the buffer, draining it if needed.
+     * @param n the number of bytes, at most the size of the buffer
+     */
+    private void reserve(int n) throws IOException {
+        if (pos + n > buf.length) {
+            drain();
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the channel and empties the buffer.
+     */
+    private void drain() throws IOException {
+        wrapped.clear();
+        wrapped.limit(pos);
+        while (wrapped.hasRemaining()) {
+            channel.write(wrapped);
+        }
+        pos = 0;
+    }
+
+    /**
+     * Writes a char as a single byte.
+     * @param c the char
+     * @return this writer
+     */
+    public ByteWriter print(char c) throws IOException {
+        reserve(1);
+        buf[pos++] = (byte) c;
+        bytesWritten++;
+        return this;
+    }
+
+    /**
+     * Writes the chars of a String, one byte each.
+     * @param s the String
+     * @return this writer
+     */
+    public ByteWriter print(String s) throws IOException {
+        int length = s.length();
+        for (int i = 0; i < length; ) {
+            reserve(1);
+            int n = Math.min(length - i, buf.length - pos);
+            for (int j = 0; j < n; j++) {
+                buf[pos++] = (byte) s.charAt(i++);
+            }
+        }
+        bytesWritten += length;
+        return this;
+    }
+
+    /**
+     * Writes an int in decimal.
+     * @param x the int
+     * @return this writer
+     */
+    public ByteWriter print(int x) throws IOException {
+        return print((long) x);
+    }
+
+    /**
+     * Writes a long in decimal.
+     * @param x the long
+     * @return this writer
+     */
+    public ByteWriter print(long x) throws IOException {
+        if (x == Long.MIN_VALUE) {
+            return print(MIN_LONG);
+        }
+        reserve(20);
+        int start = pos;
+        if (x < 0) {
+            buf[pos++] = '-';
+            x = -x;
+        }
+        // the digits come out backwards, so they are written at the end and reversed
+        int first = pos;
+        do {
+            buf[pos++] = (byte) ('0' + x % 10);
+            x /= 10;
+        } while (x != 0);
+        for (int i = first, j = pos - 1; i < j; i++, j--) {
+            byte t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+        bytesWritten += pos - start;
+        return this;
+    }
+
+    /**
+     * Ends the current line.
+     * @return this writer
+     */
+    public ByteWriter println() throws IOException {
+        return print('\n');
+    }
+
+    /**
+     * Writes a String and ends the line.
+     * @param s the String
+     * @return this writer
+     */
+    public ByteWriter println(String s) throws IOException {
+        return print(s).println();
+    }
+
+    /**
+     * Gets the number of bytes written so far, including those still in the buffer.
+     * @return the number of bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Writes the buffered bytes to the channel.
+     */
+    public void flush() throws IOException {
+        drain();
+    }
+
+    /**
+     * Writes the buffered bytes to the channel and closes it.
+     */
+    public void close() throws IOException {
+        drain();
+        channel.close();
+    }
+}
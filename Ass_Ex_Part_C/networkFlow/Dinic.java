@@ -0,0 +1,137 @@
+package networkFlow;
+import java.util.*;
+
+/**
+ * The Class Dinic.
+ * Computes a maximum flow with Dinic's algorithm: a breadth first search from the source
+ * labels every vertex with its distance in the residual graph, and a blocking flow is then
+ * pushed along shortest paths only, using a current-arc pointer per vertex so that no arc
+ * is looked at twice within a phase. Works in place on the flows of the network.
+ */
+public class Dinic {
+
+    /** The network on which the algorithm is run. */
+    private Network net;
+
+    /** level[v] is the distance of v from the source in the residual graph, or -1. */
+    private int[] level;
+
+    /** currentArc[v] is the next arc of v to try in the current phase. */
+    private int[] currentArc;
+
+    /** The breadth first search queue, holding vertex labels. */
+    private int[] queue;
+
+    /** The arcs of the path currently being extended from the source. */
+    private int[] path;
+
+    /**
+     * Instantiates a new Dinic object.
+     * @param net the network
+     */
+    public Dinic(Network net) {
+        this.net = net;
+        level = new int[net.getNumVertices()];
+        currentArc = new int[net.getNumVertices()];
+        queue = new int[net.getNumVertices()];
+        path = new int[net.getNumVertices()];
+    }
+
+    /**
+     * Increases the flow of the network to a maximum flow,
+     * starting from whatever valid flow it currently holds.
+     */
+    public void maxFlow() {
+        while (buildLevels()) {
+            for (int v = 0; v < net.getNumVertices(); v++) {
+                currentArc[v] = net.getArcStart(v);
+            }
+            blockingFlow();
+        }
+    }
+
+    /**
+     * Labels every vertex with its distance from the source over arcs
+     * with positive residual capacity.
+     * @return true, if the sink is reachable from the source
+     */
+    private boolean buildLevels() {
+        int sourceLabel = net.getSource().getLabel();
+        Arrays.fill(level, -1);
+        level[sourceLabel] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = sourceLabel;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = net.getArcStart(u); a < net.getArcEnd(u); a++) {
+                int v = net.getArcTarget(a);
+                if (level[v] == -1 && net.getResidualCap(a) > 0) {
+                    level[v] = level[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return level[net.getSink().getLabel()] != -1;
+    }
+
+    /**
+     * Pushes a blocking flow through the level graph.
+     * The search is iterative so that long paths do not overflow the stack: the path is
+     * extended along admissible arcs, augmented when it reaches the sink, and cut back
+     * to the first saturated arc; a vertex with no admissible arc left is removed from
+     * the level graph and the search retreats from it.
+     */
+    private void blockingFlow() {
+        int sourceLabel = net.getSource().getLabel();
+        int sinkLabel = net.getSink().getLabel();
+        int top = 0;
+        int u = sourceLabel;
+        for (;;) {
+            if (u == sinkLabel) {
+                long newFlow = net.getResidualCap(path[0]);
+                for (int i = 1; i < top; i++) {
+                    newFlow = Math.min(newFlow, net.getResidualCap(path[i]));
+                }
+                int cut = -1;
+                for (int i = 0; i < top; i++) {
+                    net.updateFlow(path[i], newFlow);
+                    if (cut == -1 && net.getResidualCap(path[i]) == 0) {
+                        cut = i;
+                    }
+                }
+                // continue from the tail of the first saturated arc
+                top = cut;
+                u = tailOf(path[cut]);
+                continue;
+            }
+            int end = net.getArcEnd(u);
+            int a = currentArc[u];
+            while (a < end && (net.getResidualCap(a) == 0 || level[net.getArcTarget(a)] != level[u] + 1)) {
+                a++;
+            }
+            currentArc[u] = a;
+            if (a < end) { // advance
+                path[top++] = a;
+                u = net.getArcTarget(a);
+            }
+            else { // retreat
+                level[u] = -1; // u cannot reach the sink any more in this phase
+                if (top == 0) {
+                    return;
+                }
+                u = tailOf(path[--top]);
+                currentArc[u]++;
+            }
+        }
+    }
+
+    /**
+     * Gets the label of the vertex that arc a leaves.
+     * @param a the arc
+     * @return the tail of a
+     */
+    private int tailOf(int a) {
+        return net.getArcTarget(net.getReverseArc(a));
+    }
+}
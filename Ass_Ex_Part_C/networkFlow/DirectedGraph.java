@@ -3,7 +3,17 @@ import java.util.*;
 
 /**
  * The Class DirectedGraph.
- * Represents a directed graph using both adjacency lists and an adjacency matrix.
+ * Represents a directed graph in compressed sparse row (CSR) form.
+ * Edges are kept in primitive arrays indexed by edge number, and the CSR arrays give
+ * every vertex a contiguous block of arcs: one arc for each outgoing edge and one
+ * reverse arc for each incoming edge. Memory therefore grows with the number of edges
+ * rather than with the square of the number of vertices.
+ *
+ * Since the arcs of a vertex are sorted by target, searches visit its neighbours in order
+ * of label, where the adjacency lists this replaced gave them in the order the edges were
+ * read. Where a network has several maximum flows, the flow found, and so the assignment
+ * printed for Parts B and C, can therefore differ from that of the earlier program, though
+ * its value is the same.
  */
 public class DirectedGraph {
 
@@ -19,16 +29,47 @@ public class DirectedGraph {
 	/** Defines the vertices in the graph. */
 	protected Vertex [] vertices;
 
-	/** Defines the adjacency lists of the graph as an array, with an element for 
-	*   each vertex v giving a linked list corresponding to v's adjacency list.
-	*/
-	protected ArrayList<LinkedList<Vertex>> adjLists; 
+	/** Number of edges in the graph. */
+	protected int numEdges;
 
-	/** Defines the adjacency matrix of the graph as a matrix whose (i,j)th entry
-	 *  is an edge - this is slightly non-standard but allows for efficient look-up
-	 *  of flows and capacities.
-	 */
-	protected Edge [][] adjMatrix;
+	/** edgeSource[e] is the label of the source endpoint of edge e. */
+	protected int [] edgeSource;
+
+	/** edgeTarget[e] is the label of the target endpoint of edge e. */
+	protected int [] edgeTarget;
+
+	/** edgeCap[e] is the capacity of edge e. */
+	protected long [] edgeCap;
+
+	/** edgeFlow[e] is the flow through edge e. */
+	protected long [] edgeFlow;
+
+	/** The sum of the capacities of the edges. Since it must fit in a long, so does every
+	 *  flow value, excess and cut capacity computed from them. */
+	private long totalCap;
+
+	/** The arcs of the vertex with label u are offsets[u], ..., blockEnd[u]-1. */
+	protected int [] offsets;
+
+	/** blockEnd[u] is one past the last arc of u: offsets[u+1] when the CSR arrays are
+	 *  built, and less once edges of u have been deleted since. */
+	protected int [] blockEnd;
+
+	/** arcTarget[a] is the label of the vertex that arc a points to.
+	 *  Within the block of a vertex the arcs are sorted by target. */
+	protected int [] arcTarget;
+
+	/** arcEdge[a] is e if arc a runs along edge e, and ~e if arc a is the reverse of edge e. */
+	protected int [] arcEdge;
+
+	/** arcReverse[a] is the arc that runs over the same edge as arc a in the opposite direction. */
+	protected int [] arcReverse;
+
+	/** edgeArc[e] is the forward arc of edge e. */
+	protected int [] edgeArc;
+
+	/** True if edges have been added since the CSR arrays were last built. */
+	private boolean csrStale;
 
 	/**
 	 * Constructor for directed graph class.
@@ -39,16 +80,14 @@ public class DirectedGraph {
 		numVertices = n;
 
 		vertices = new Vertex [numVertices];
-		adjLists = new ArrayList<LinkedList<Vertex>> ();
-		adjMatrix = new Edge [numVertices][numVertices];
-
-		// initialise all adjacency lists to be empty
-		// initialise all entries in adjMatrix to be null
-		for (int u = 0; u < numVertices; u++) {
-			adjLists.add(new LinkedList<Vertex>());
-			for (int v = 0; v < numVertices; v++)
-				adjMatrix[u][v] = null;
-		}
+
+		// the edge arrays grow as edges are added
+		int initialSize = Math.max(16, numVertices);
+		edgeSource = new int [initialSize];
+		edgeTarget = new int [initialSize];
+		edgeCap = new long [initialSize];
+		edgeFlow = new long [initialSize];
+		csrStale = true;
 	}
 
 	/**
@@ -70,15 +109,177 @@ public class DirectedGraph {
         vertices[v.getLabel()] = v;
     }
 
+	/**
+	 * Adds a new vertex to the graph with the next free label, after every existing vertex.
+	 * @return the vertex
+	 */
+	public Vertex appendVertex() {
+		if (numVertices == vertices.length)
+			vertices = Arrays.copyOf(vertices, 2 * numVertices + 1);
+		numVertices++;
+		csrStale = true;
+		return addVertex(numVertices - 1);
+	}
+
 	/**
 	 * Adds a new edge to the graph with specified source and target vertices
 	 * @param sourceEndpoint the source vertex
 	 * @param targetEndpoint the target vertex
 	 */
 	public void addEdge(Vertex sourceEndpoint, Vertex targetEndpoint) {
-		Edge e = new Edge(sourceEndpoint, targetEndpoint);
-		adjLists.get(sourceEndpoint.getLabel()).addLast(targetEndpoint);
-		adjMatrix[sourceEndpoint.getLabel()][targetEndpoint.getLabel()]=e;
+		newEdge(sourceEndpoint.getLabel(), targetEndpoint.getLabel(), 0);
+	}
+
+	/**
+	 * Appends an edge to the edge arrays, growing them if needed. Nothing is appended if
+	 * the capacities would sum to more than Long.MAX_VALUE.
+	 * @param u the label of the source endpoint
+	 * @param v the label of the target endpoint
+	 * @param cap the capacity of the edge
+	 * @return the index of the new edge
+	 */
+	protected int newEdge(int u, int v, long cap) {
+		totalCap = addCap(totalCap, cap);
+		if (numEdges == edgeSource.length) {
+			int size = 2 * numEdges;
+			edgeSource = Arrays.copyOf(edgeSource, size);
+			edgeTarget = Arrays.copyOf(edgeTarget, size);
+			edgeCap = Arrays.copyOf(edgeCap, size);
+			edgeFlow = Arrays.copyOf(edgeFlow, size);
+		}
+		int e = numEdges++;
+		edgeSource[e] = u;
+		edgeTarget[e] = v;
+		edgeCap[e] = cap;
+		edgeFlow[e] = 0;
+		csrStale = true;
+		return e;
+	}
+
+	/**
+	 * Deletes edge e from the edge arrays by moving the last edge into its place,
+	 * so that the last edge takes over index e. The CSR arrays, if built, are kept up to
+	 * date in time proportional to the degrees of the endpoints of e.
+	 * @param e the edge index
+	 */
+	protected void deleteEdge(int e) {
+		int last = --numEdges;
+		totalCap -= edgeCap[e];
+		if (!csrStale) {
+			int f = edgeArc[e];
+			int r = arcReverse[f];
+			// the higher arc first, so that removing it never moves the other one,
+			// as it would if both were in the block of a loop
+			if (f > r) {
+				removeArc(edgeSource[e], f);
+				removeArc(edgeTarget[e], r);
+			}
+			else {
+				removeArc(edgeTarget[e], r);
+				removeArc(edgeSource[e], f);
+			}
+			if (last != e) { // the arcs of the last edge now run over edge e
+				int g = edgeArc[last];
+				arcEdge[g] = e;
+				arcEdge[arcReverse[g]] = ~e;
+				edgeArc[e] = g;
+			}
+		}
+		edgeSource[e] = edgeSource[last];
+		edgeTarget[e] = edgeTarget[last];
+		edgeCap[e] = edgeCap[last];
+		edgeFlow[e] = edgeFlow[last];
+	}
+
+	/**
+	 * Removes arc a from the block of u, moving the arcs after it down one place so that
+	 * the block stays sorted by target, and pointing the arcs paired with them and their
+	 * edges at their new places.
+	 * @param u the vertex label
+	 * @param a the arc
+	 */
+	private void removeArc(int u, int a) {
+		int end = --blockEnd[u];
+		for (int b = a; b < end; b++) {
+			arcTarget[b] = arcTarget[b + 1];
+			arcEdge[b] = arcEdge[b + 1];
+			arcReverse[b] = arcReverse[b + 1];
+			arcReverse[arcReverse[b]] = b;
+			if (arcEdge[b] >= 0)
+				edgeArc[arcEdge[b]] = b;
+		}
+	}
+
+	/**
+	 * Builds the CSR arrays from the edge arrays.
+	 * The arcs are first bucketed by target and then, keeping that order, by source,
+	 * so that the block of every vertex ends up sorted by target in O(n + m) time.
+	 */
+	private void buildCsr() {
+		int numArcs = 2 * numEdges;
+		int [] byTarget = new int [numArcs];
+		int [] fill = new int [numVertices + 1];
+
+		// bucket the arcs by target
+		for (int e = 0; e < numEdges; e++) {
+			fill[edgeTarget[e] + 1]++; // forward arc of e points to its target
+			fill[edgeSource[e] + 1]++; // reverse arc of e points to its source
+		}
+		for (int u = 0; u < numVertices; u++)
+			fill[u + 1] += fill[u];
+		for (int e = 0; e < numEdges; e++) {
+			byTarget[fill[edgeTarget[e]]++] = e;
+			byTarget[fill[edgeSource[e]]++] = ~e;
+		}
+
+		// count the arcs leaving every vertex
+		offsets = new int [numVertices + 1];
+		for (int e = 0; e < numEdges; e++) {
+			offsets[edgeSource[e] + 1]++;
+			offsets[edgeTarget[e] + 1]++;
+		}
+		for (int u = 0; u < numVertices; u++)
+			offsets[u + 1] += offsets[u];
+		blockEnd = Arrays.copyOfRange(offsets, 1, numVertices + 1);
+
+		// place the arcs in target order into the block of their source
+		arcTarget = new int [numArcs];
+		arcEdge = new int [numArcs];
+		arcReverse = new int [numArcs];
+		edgeArc = new int [numEdges];
+		System.arraycopy(offsets, 0, fill, 0, numVertices + 1);
+		for (int i = 0; i < numArcs; i++) {
+			int code = byTarget[i];
+			int a;
+			if (code >= 0) {
+				a = fill[edgeSource[code]]++;
+				arcTarget[a] = edgeTarget[code];
+				edgeArc[code] = a;
+			}
+			else {
+				a = fill[edgeTarget[~code]]++;
+				arcTarget[a] = edgeSource[~code];
+			}
+			arcEdge[a] = code;
+		}
+
+		// pair every reverse arc with the forward arc of the same edge
+		for (int a = 0; a < numArcs; a++) {
+			if (arcEdge[a] < 0) {
+				int f = edgeArc[~arcEdge[a]];
+				arcReverse[a] = f;
+				arcReverse[f] = a;
+			}
+		}
+		csrStale = false;
+	}
+
+	/**
+	 * Rebuilds the CSR arrays if edges were added since they were last built.
+	 */
+	protected void ensureCsr() {
+		if (csrStale)
+			buildCsr();
 	}
 
 	/**
@@ -89,34 +290,87 @@ public class DirectedGraph {
 		return numVertices;
 	}
 
+	/**
+	 * Gets the number of edges in the graph.
+	 * @return the number of edges in the graph
+	 */
+	public int getNumEdges() {
+		return numEdges;
+	}
+
 	/**
 	 * Gets the adjacency list for a given vertex vv.
+	 * The list is built from the CSR arrays on every call.
 	 *
 	 * @param vv the given vertex
 	 * @return the adjacency list
 	 */
 	public LinkedList<Vertex> getAdjList(Vertex vv) {
-		return adjLists.get(vv.getLabel());
+		return getAdjListByLabel(vv.getLabel());
 	}
 
 	/**
 	 * Gets the adjacency list for a given vertex with label v.
+	 * The list is built from the CSR arrays on every call.
 	 * @param v the vertex label
 	 * @return the adjacency list
 	 */
 	public LinkedList<Vertex> getAdjListByLabel(int v) {
-		return adjLists.get(v);
+		LinkedList<Vertex> adjList = new LinkedList<Vertex>();
+		for (int a = getArcStart(v); a < getArcEnd(v); a++) {
+			if (isForwardArc(a))
+				adjList.addLast(vertices[arcTarget[a]]);
+		}
+		return adjList;
 	}
 
 	/**
-	 * Gets the adjacency matrix entry corresponding to vertices uu and vv.
+	 * Gets the adjacency matrix entry corresponding to vertices uu and vv,
+	 * i.e. the edge (uu,vv) or null if there is no such edge.
 	 *
 	 * @param uu the first vertex
 	 * @param vv the second vertex
 	 * @return the adjacency matrix entry
 	 */
 	public Edge getAdjMatrixEntry(Vertex uu, Vertex vv) {
-		return adjMatrix[uu.getLabel()][vv.getLabel()];
+		int e = findEdge(uu.getLabel(), vv.getLabel());
+		if (e == -1)
+			return null;
+		return new Edge(this, e);
+	}
+
+	/**
+	 * Finds the edge (u,v) by binary search over the arcs of u.
+	 * @param u the label of the source endpoint
+	 * @param v the label of the target endpoint
+	 * @return the index of the edge, or -1 if there is no such edge
+	 */
+	public int findEdge(int u, int v) {
+		ensureCsr();
+		int lo = offsets[u];
+		int hi = blockEnd[u];
+		while (lo < hi) { // find the first arc of u whose target is not below v
+			int mid = (lo + hi) >>> 1;
+			if (arcTarget[mid] < v)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		// a reverse arc of an edge (v,u) may have the same target
+		for (int a = lo; a < blockEnd[u] && arcTarget[a] == v; a++) {
+			if (arcEdge[a] >= 0)
+				return arcEdge[a];
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the edge with index e.
+	 * @param e the edge index
+	 * @return the edge
+	 */
+	public Edge getEdge(int e) {
+		return new Edge(this, e);
 	}
 
 	/**
@@ -128,4 +382,133 @@ public class DirectedGraph {
 	public Vertex getVertexByIndex (int i) {
 		return vertices[i];
 	}
+
+	/**
+	 * Gets the first arc of the vertex with label u.
+	 * @param u the vertex label
+	 * @return the first arc of u
+	 */
+	public int getArcStart(int u) {
+		ensureCsr();
+		return offsets[u];
+	}
+
+	/**
+	 * Gets the arc after the last arc of the vertex with label u.
+	 * @param u the vertex label
+	 * @return one past the last arc of u
+	 */
+	public int getArcEnd(int u) {
+		ensureCsr();
+		return blockEnd[u];
+	}
+
+	/**
+	 * Gets the label of the vertex that arc a points to.
+	 * @param a the arc
+	 * @return the target label
+	 */
+	public int getArcTarget(int a) {
+		return arcTarget[a];
+	}
+
+	/**
+	 * Gets the index of the edge that arc a runs over, in either direction.
+	 * @param a the arc
+	 * @return the edge index
+	 */
+	public int getArcEdge(int a) {
+		int code = arcEdge[a];
+		return code >= 0 ? code : ~code;
+	}
+
+	/**
+	 * Returns true if arc a runs in the direction of its edge.
+	 * @param a the arc
+	 * @return true, if a is a forward arc
+	 */
+	public boolean isForwardArc(int a) {
+		return arcEdge[a] >= 0;
+	}
+
+	/**
+	 * Gets the arc over the same edge as a in the opposite direction.
+	 * @param a the arc
+	 * @return the reverse arc
+	 */
+	public int getReverseArc(int a) {
+		return arcReverse[a];
+	}
+
+	/**
+	 * Gets the label of the source endpoint of edge e.
+	 * @param e the edge index
+	 * @return the source label
+	 */
+	public int getEdgeSource(int e) {
+		return edgeSource[e];
+	}
+
+	/**
+	 * Gets the label of the target endpoint of edge e.
+	 * @param e the edge index
+	 * @return the target label
+	 */
+	public int getEdgeTarget(int e) {
+		return edgeTarget[e];
+	}
+
+	/**
+	 * Gets the capacity of edge e.
+	 * @param e the edge index
+	 * @return the capacity
+	 */
+	public long getEdgeCap(int e) {
+		return edgeCap[e];
+	}
+
+	/**
+	 * Sets the capacity of edge e.
+	 * @param e the edge index
+	 * @param cap the new capacity
+	 * @throws IllegalArgumentException if the capacities would sum to more than Long.MAX_VALUE
+	 */
+	protected void setEdgeCap(int e, long cap) {
+		totalCap = addCap(totalCap - edgeCap[e], cap);
+		edgeCap[e] = cap;
+	}
+
+	/**
+	 * Adds a capacity to a sum of capacities.
+	 * @param sum the sum
+	 * @param cap the capacity
+	 * @return the new sum
+	 * @throws IllegalArgumentException if it would be more than Long.MAX_VALUE
+	 */
+	private static long addCap(long sum, long cap) {
+		try {
+			return Math.addExact(sum, cap);
+		}
+		catch (ArithmeticException x) {
+			throw new IllegalArgumentException("The capacities sum to more than " + Long.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * Gets the flow through edge e.
+	 * @param e the edge index
+	 * @return the flow
+	 */
+	public long getEdgeFlow(int e) {
+		return edgeFlow[e];
+	}
+
+	/**
+	 * Sets the flow through edge e.
+	 * @param e the edge index
+	 * @param f the new flow
+	 */
+	public void setEdgeFlow(int e, long f) {
+		edgeFlow[e] = f;
+	}
 }
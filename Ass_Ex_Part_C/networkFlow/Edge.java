@@ -3,46 +3,34 @@ package networkFlow;
 /**
  * The Class Edge.
  * Represents an edge (u,v) in a directed graph
+ * as a view onto the edge arrays of the graph that stores it.
  */
 public class Edge {
 
-	/** The source endpoint of the edge.
-	 *  NB. the source endpoint of (uu,vv) is uu. */
-	private Vertex sourceEndpoint; 
-	
-	/** The target endpoint of the edge.
-	 *  NB. the target endpoint of (uu,vv) is vv. */
-	private Vertex targetEndpoint; 
-	
-	/** Stores the flow through the edge (uu,vv). */
-	private int flow;
-	
-	/** Stores the uquota of the edge (uu,vv). */
-	private int capacity;
+	/** The graph that stores the edge.
+	 *  The endpoints, flow and capacity live in the graph's edge arrays. */
+	private DirectedGraph graph;
+
+	/** The index of the edge (uu,vv) in the edge arrays of the graph. */
+	private int index;
 
 	/**
 	 * Instantiates a new edge.
 	 * Constructor used by DirectedGraph class.
-	 * @param uu the source vertex
-	 * @param vv the target vertex
+	 * @param g the graph that stores the edge
+	 * @param e the index of the edge in g
 	 */
-	public Edge (Vertex uu, Vertex vv) {
-		sourceEndpoint = uu;
-		targetEndpoint = vv;
+	public Edge (DirectedGraph g, int e) {
+		graph = g;
+		index = e;
 	}
 
 	/**
-	 * Instantiates a new edge.
-	 * Constructor used by the Network class.
-	 * @param uu the source vertex
-	 * @param vv the target vertex
-	 * @param c the uquota
+	 * Gets the index of the edge in its graph.
+	 * @return the edge index
 	 */
-	public Edge (Vertex uu, Vertex vv, int c) { 
-		sourceEndpoint = uu;
-		targetEndpoint = vv;
-		flow = 0;
-		capacity = c;
+	public int getIndex() {
+		return index;
 	}
 
 	/**
@@ -50,7 +38,7 @@ public class Edge {
 	 * @return the source vertex
 	 */
 	public Vertex getSourceVertex() {
-		return sourceEndpoint;
+		return graph.getVertexByIndex(graph.edgeSource[index]);
 	}
 
 	/**
@@ -58,38 +46,38 @@ public class Edge {
 	 * @return the target vertex
 	 */
 	public Vertex getTargetVertex() {
-		return targetEndpoint;
+		return graph.getVertexByIndex(graph.edgeTarget[index]);
 	}
 
 	/**
 	 * Gets the flow.
 	 * @return the flow
 	 */
-	public int getFlow() {
-		return flow;
+	public long getFlow() {
+		return graph.edgeFlow[index];
 	}
 
 	/**
 	 * Sets the flow.
 	 * @param f the new flow
 	 */
-	public void setFlow(int f) {
-		flow = f;
+	public void setFlow(long f) {
+		graph.edgeFlow[index] = f;
 	}
 
 	/**
 	 * Gets the uquota.
 	 * @return the uquota
 	 */
-	public int getCap() {
-		return capacity;
+	public long getCap() {
+		return graph.edgeCap[index];
 	}
 
 	/**
 	 * Sets the uquota.
 	 * @param c the new uquota
 	 */
-	public void setCap(int c) {
-		capacity = c;
+	public void setCap(long c) {
+		graph.setEdgeCap(index, c);
 	}
 }
@@ -0,0 +1,148 @@
+package networkFlow;
+import java.util.*;
+
+/**
+ * The Class LowerBounds.
+ * Finds flows in a network whose edges have lower bounds through the standard reduction to
+ * a circulation with demands. Sending the lower bound of every edge along it up front leaves
+ * each vertex with a surplus or a deficit; in the demand network a super source feeds every
+ * vertex with a surplus, a super sink drains every vertex with a deficit and an edge from
+ * the sink back to the source carries whatever the source sends, so a single maximum flow
+ * in it saturates every edge out of the super source exactly when the network has a flow
+ * meeting all the lower bounds.
+ *
+ * That flow is then moved onto the network with every capacity and flow shifted down by the
+ * lower bound of its edge. In this form the residual capacity against an edge is the flow
+ * above its lower bound, so any of the max-flow algorithms can increase the flow from there
+ * without breaking a bound, after which the shift is undone.
+ *
+ * The demand network gives label 0 to the super source, label v + 1 to vertex v of the
+ * network and the last label to the super sink; edge e of the network is edge e there too,
+ * with the same cost, and the edges added cost nothing.
+ */
+public class LowerBounds {
+
+    /** The network with the lower bounds. */
+    private Network net;
+
+    /** The demand network, built on first use. */
+    private Network demandNet;
+
+    /** The index of the first edge of the demand network that leaves the super source
+     *  or enters the super sink. */
+    private int firstDemandEdge;
+
+    /** False if some edge has a lower bound above its capacity. */
+    private boolean consistent = true;
+
+    /**
+     * Instantiates a new LowerBounds object.
+     * @param net the network
+     */
+    public LowerBounds(Network net) {
+        this.net = net;
+    }
+
+    /**
+     * Gets the demand network, building it on the first call. Its source is the super source
+     * and its sink the super sink, so it can be given to any of the max-flow algorithms.
+     * @return the demand network
+     */
+    public Network getDemandNetwork() {
+        if (demandNet == null) {
+            buildDemandNetwork();
+        }
+        return demandNet;
+    }
+
+    /**
+     * Builds the demand network.
+     */
+    private void buildDemandNetwork() {
+        int n = net.getNumVertices();
+        int m = net.getNumEdges();
+        int sourceLabel = net.getSource().getLabel();
+        int sinkLabel = net.getSink().getLabel();
+        demandNet = new Network(n + 2);
+        long[] balance = new long[n]; // the lower bounds into v minus the lower bounds out of v
+        long outOfSource = 0;
+        for (int e = 0; e < m; e++) {
+            int u = net.edgeSource[e];
+            int v = net.edgeTarget[e];
+            int lower = net.getEdgeLower(e);
+            if (lower > net.edgeCap[e]) {
+                consistent = false;
+            }
+            demandNet.newEdge(u + 1, v + 1, Math.max(0, net.edgeCap[e] - lower));
+            if (net.getEdgeCost(e) != 0) {
+                demandNet.setEdgeCost(e, net.getEdgeCost(e));
+            }
+            balance[v] += lower;
+            balance[u] -= lower;
+            if (u == sourceLabel) {
+                outOfSource += net.edgeCap[e];
+            }
+        }
+        // the source can never send more than its edges carry, so this is as good as infinite
+        demandNet.newEdge(sinkLabel + 1, sourceLabel + 1, outOfSource);
+        firstDemandEdge = m + 1;
+        for (int v = 0; v < n; v++) {
+            if (balance[v] > 0) {
+                demandNet.newEdge(0, v + 1, balance[v]);
+            }
+            else if (balance[v] < 0) {
+                demandNet.newEdge(v + 1, n + 1, -balance[v]);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the network has a flow meeting all its lower bounds; only valid
+     * once a maximum flow has been found in the demand network.
+     * @return true, if the lower bounds can be met
+     */
+    public boolean isFeasible() {
+        if (!consistent) {
+            return false;
+        }
+        for (int e = firstDemandEdge; e < demandNet.getNumEdges(); e++) {
+            if (demandNet.edgeSource[e] == 0 && demandNet.edgeFlow[e] != demandNet.edgeCap[e]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the flow of the demand network onto the network, with every capacity and flow
+     * shifted down by the lower bound of its edge. Only valid if isFeasible() holds.
+     */
+    public void shift() {
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            net.edgeCap[e] -= net.getEdgeLower(e);
+            net.edgeFlow[e] = demandNet.edgeFlow[e];
+        }
+    }
+
+    /**
+     * Gets potentials for the vertices of the network from potentials for the vertices of
+     * the demand network. Every arc of the shifted network has the same reduced cost as the
+     * arc of the demand network over the same edge.
+     * @param demandPotentials the potentials, indexed by demand network label
+     * @return the potentials, indexed by network label
+     */
+    public int[] getNetworkPotentials(int[] demandPotentials) {
+        return Arrays.copyOfRange(demandPotentials, 1, net.getNumVertices() + 1);
+    }
+
+    /**
+     * Undoes shift(), adding the lower bound of every edge back to its capacity and flow.
+     */
+    public void unshift() {
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            int lower = net.getEdgeLower(e);
+            net.edgeCap[e] += lower;
+            net.edgeFlow[e] += lower;
+        }
+    }
+}
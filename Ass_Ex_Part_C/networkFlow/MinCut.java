@@ -0,0 +1,165 @@
+package networkFlow;
+
+/**
+ * The Class MinCut.
+ * Reads a minimum cut off a network holding a maximum flow that meets its lower bounds. The
+ * vertices reachable from the source over arcs with residual capacity form the source side,
+ * where an arc against an edge has the flow above the lower bound as residual capacity.
+ * Since the sink is not among them, every edge from the source side to the rest is saturated
+ * and every edge back carries just its lower bound, so the capacity of the cut, the upper
+ * bounds forward minus the lower bounds back, equals the value of the flow and no cut is
+ * smaller.
+ * The saturated edges are the constraints that keep the flow from growing: raising any
+ * other capacity cannot increase the value. Takes a single breadth first search and one
+ * pass over the edges.
+ */
+public class MinCut {
+
+    /** The network whose cut is found. */
+    private Network net;
+
+    /** sourceSide[v] is true if v is reachable from the source in the residual graph. */
+    private boolean[] sourceSide;
+
+    /** The number of vertices on the source side. */
+    private int sourceSideSize;
+
+    /** The indices of the edges from the source side to the sink side. */
+    private int[] cutEdges;
+
+    /** The sum of the capacities of the cut edges. */
+    private long capacity;
+
+    /**
+     * Instantiates a new MinCut object and finds the cut; only valid if net holds a
+     * maximum flow.
+     * @param net the network
+     */
+    public MinCut(Network net) {
+        this.net = net;
+        findSourceSide();
+        findCutEdges();
+    }
+
+    /**
+     * Marks every vertex reachable from the source over arcs with residual capacity.
+     */
+    private void findSourceSide() {
+        int n = net.getNumVertices();
+        sourceSide = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        int sourceLabel = net.getSource().getLabel();
+        sourceSide[sourceLabel] = true;
+        queue[tail++] = sourceLabel;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = net.getArcStart(u); a < net.getArcEnd(u); a++) {
+                int v = net.getArcTarget(a);
+                if (!sourceSide[v] && residualCap(a) > 0) {
+                    sourceSide[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        sourceSideSize = tail;
+    }
+
+    /**
+     * Gets the residual capacity of arc a with the lower bound of its edge respected.
+     * @param a the arc
+     * @return the residual capacity of a
+     */
+    private long residualCap(int a) {
+        if (net.isForwardArc(a)) {
+            return net.getResidualCap(a);
+        }
+        return net.getResidualCap(a) - net.getEdgeLower(net.getArcEdge(a));
+    }
+
+    /**
+     * Collects the edges from the source side to the sink side, and adds up their capacities
+     * less the lower bounds of the edges back.
+     */
+    private void findCutEdges() {
+        int count = 0;
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            if (crossesCut(e)) {
+                count++;
+            }
+        }
+        cutEdges = new int[count];
+        count = 0;
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            if (crossesCut(e)) {
+                cutEdges[count++] = e;
+                capacity += net.getEdgeCap(e);
+            }
+            else if (!sourceSide[net.getEdgeSource(e)] && sourceSide[net.getEdgeTarget(e)]) {
+                capacity -= net.getEdgeLower(e);
+            }
+        }
+    }
+
+    /**
+     * Returns true if edge e leads from the source side to the sink side.
+     * @param e the edge index
+     * @return true, if e is a cut edge
+     */
+    private boolean crossesCut(int e) {
+        return sourceSide[net.getEdgeSource(e)] && !sourceSide[net.getEdgeTarget(e)];
+    }
+
+    /**
+     * Returns true if v is on the source side of the cut.
+     * @param v the vertex label
+     * @return true, if v is reachable from the source in the residual graph
+     */
+    public boolean isSourceSide(int v) {
+        return sourceSide[v];
+    }
+
+    /**
+     * Gets the labels of the vertices on the source side of the cut, in increasing order.
+     * @return the source side
+     */
+    public int[] getSourceSide() {
+        int[] labels = new int[sourceSideSize];
+        int i = 0;
+        for (int v = 0; v < sourceSide.length; v++) {
+            if (sourceSide[v]) {
+                labels[i++] = v;
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Gets the indices of the edges from the source side to the sink side, in increasing
+     * order. Every one of them is saturated.
+     * @return the cut edges
+     */
+    public int[] getCutEdges() {
+        return cutEdges;
+    }
+
+    /**
+     * Returns true if edge e leads from the source side to the sink side, so that its
+     * capacity limits the value of the flow.
+     * @param e the edge index
+     * @return true, if e is a cut edge
+     */
+    public boolean isCutEdge(int e) {
+        return crossesCut(e);
+    }
+
+    /**
+     * Gets the capacity of the cut, which equals the value of the maximum flow meeting the
+     * lower bounds.
+     * @return the capacity of the cut
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+}
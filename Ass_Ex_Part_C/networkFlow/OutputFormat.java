@@ -0,0 +1,50 @@
+package networkFlow;
+
+/**
+ * The Enum OutputFormat.
+ * The formats in which the flow found can be written out.
+ */
+public enum OutputFormat {
+
+    /** The sentences read by people (the default). */
+    TEXT("text"),
+
+    /** One comma separated record per line, after a header line naming the fields. */
+    CSV("csv"),
+
+    /** One JSON object per line. */
+    JSON_LINES("jsonl");
+
+    /** The name used to select the format on the command line. */
+    private String name;
+
+    /**
+     * Instantiates a new format constant.
+     * @param name the command line name
+     */
+    OutputFormat(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the command line name of the format.
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Finds the format with the given command line name.
+     * @param name the command line name
+     * @return the format, or null if there is none with that name
+     */
+    public static OutputFormat byName(String name) {
+        for (OutputFormat f : values()) {
+            if (f.name.equals(name)) {
+                return f;
+            }
+        }
+        return null;
+    }
+}
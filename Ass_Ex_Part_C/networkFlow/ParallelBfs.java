@@ -0,0 +1,333 @@
+package networkFlow;
+import java.lang.invoke.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * The Class ParallelBfs.
+ * A breadth first search over the residual graph of a network that expands one level at a
+ * time with the frontier split among fork-join tasks, for networks so large that a single
+ * thread searching them is the bottleneck. A vertex is claimed by whichever task first
+ * stamps it with a compare-and-set, which records the arc it was reached through.
+ *
+ * Once the arcs leaving the frontier outnumber a fraction of those left unexplored, the
+ * search goes bottom up, as in Beamer's direction-optimising search: every unreached vertex
+ * looks for a residual arc from the frontier and stops at the first, which skips most of the
+ * arcs of a large frontier. It goes top down again once the frontier is small.
+ *
+ * Levels with a small frontier are expanded on the calling thread, so small networks pay
+ * little for the parallel search, and the tasks stop as soon as any of them has reached the
+ * end of the path. The path found is a shortest augmenting path, but which of
+ * them depends on how the threads are scheduled.
+ */
+public class ParallelBfs {
+
+    /** Frontier vertices expanded by one task. */
+    private static final int GRAIN = 1 << 10;
+
+    /** Vertices checked by one task of a bottom-up step. */
+    private static final int BOTTOM_UP_GRAIN = 1 << 13;
+
+    /** Go bottom up once the arcs of the frontier exceed the unexplored arcs over ALPHA.
+     *  Beamer uses 14, but in a residual graph many unreached vertices cannot be reached
+     *  at all, and a bottom-up step scans every arc of those, so it pays off later. */
+    private static final int ALPHA = 2;
+
+    /** Go top down again once the frontier has fewer than n / BETA vertices. */
+    private static final int BETA = 24;
+
+    /** Compare-and-set on the elements of reached. */
+    private static final VarHandle REACHED = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /** The network whose residual graph is searched. */
+    private Network net;
+
+    /** reached[v] is the epoch in which v was last reached. */
+    private int[] reached;
+
+    /** pred[v] is the arc through which v was reached in the current epoch. */
+    private int[] pred;
+
+    /** The current epoch. */
+    private int epoch;
+
+    /** inFrontier[v] equals frontierStamp if v is in the frontier of a bottom-up step. */
+    private int[] inFrontier;
+    private int frontierStamp;
+
+    /** The vertices of the current level and of the next one. */
+    private int[] frontier, next;
+    private int frontierSize;
+    private AtomicInteger nextSize = new AtomicInteger();
+
+    /** The sum of the numbers of arcs of the vertices added to the next level. */
+    private AtomicLong nextArcs = new AtomicLong();
+
+    /** The vertices and arcs scanned by the last search. */
+    private AtomicLong verticesScanned = new AtomicLong();
+    private AtomicLong arcsScanned = new AtomicLong();
+
+    /** The smallest residual capacity an arc of the current search may have. */
+    private long minCap;
+
+    /** The label of the vertex the current search is looking for. */
+    private int target;
+
+    /** The arcs of the last path found, in order from the source. */
+    private int[] path;
+
+    /**
+     * Instantiates a new ParallelBfs object.
+     * @param net the network
+     * @param path the array the arcs of the path found are stored in, with room for a
+     * path through every vertex
+     */
+    public ParallelBfs(Network net, int[] path) {
+        this.net = net;
+        this.path = path;
+        int n = net.getNumVertices();
+        reached = new int[n];
+        pred = new int[n];
+        inFrontier = new int[n];
+        frontier = new int[n];
+        next = new int[n];
+    }
+
+    /**
+     * Find a shortest path from one vertex to another over arcs with residual capacity at
+     * least minCap, storing its arcs in order in the path array.
+     * @param from the label of the first vertex of the path
+     * @param to the label of the last vertex of the path, other than from
+     * @param minCap the smallest residual capacity an arc on the path may have
+     * @return the number of arcs in the path, or 0 if there is none
+     */
+    public int findPath(int from, int to, long minCap) {
+        this.minCap = minCap;
+        target = to;
+        int n = net.getNumVertices();
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) { // only after ~2^31 searches
+            Arrays.fill(reached, 0);
+            epoch = 1;
+        }
+        verticesScanned.set(0);
+        arcsScanned.set(0);
+        reached[from] = epoch;
+        frontier[0] = from;
+        frontierSize = 1;
+        long frontierArcs = net.getArcEnd(from) - net.getArcStart(from);
+        long unexploredArcs = net.getArcEnd(n - 1) - frontierArcs;
+        boolean bottomUp = false;
+        while (frontierSize > 0 && reached[to] != epoch) {
+            if (!bottomUp && frontierArcs > unexploredArcs / ALPHA) {
+                bottomUp = true;
+            }
+            else if (bottomUp && frontierSize < n / BETA) {
+                bottomUp = false;
+            }
+            nextSize.set(0);
+            nextArcs.set(0);
+            if (bottomUp) {
+                markFrontier();
+                new BottomUp(0, n).invoke();
+            }
+            else {
+                new TopDown(0, frontierSize).invoke();
+            }
+            int[] t = frontier;
+            frontier = next;
+            next = t;
+            frontierSize = nextSize.get();
+            frontierArcs = nextArcs.get();
+            unexploredArcs -= frontierArcs;
+        }
+        if (reached[to] != epoch) {
+            return 0;
+        }
+        int length = 0;
+        for (int v = to; v != from; v = tailOf(pred[v])) {
+            length++;
+        }
+        int i = length;
+        for (int v = to; v != from; v = tailOf(pred[v])) {
+            path[--i] = pred[v];
+        }
+        return length;
+    }
+
+    /**
+     * Stamps the vertices of the frontier, so that a bottom-up step can tell them apart.
+     */
+    private void markFrontier() {
+        frontierStamp++;
+        if (frontierStamp == Integer.MAX_VALUE) {
+            Arrays.fill(inFrontier, 0);
+            frontierStamp = 1;
+        }
+        for (int i = 0; i < frontierSize; i++) {
+            inFrontier[frontier[i]] = frontierStamp;
+        }
+    }
+
+    /**
+     * Claims v for the current search unless some task already has.
+     * @param v the vertex label
+     * @return true, if this call claimed v
+     */
+    private boolean claim(int v) {
+        int old = reached[v];
+        return old != epoch && REACHED.compareAndSet(reached, v, old, epoch);
+    }
+
+    /**
+     * Appends the vertices a task found to the next level.
+     * @param found the vertices, in its first count entries
+     * @param count the number of vertices
+     * @param arcs the sum of their numbers of arcs
+     */
+    private void addToNext(int[] found, int count, long arcs) {
+        if (count > 0) {
+            int at = nextSize.getAndAdd(count);
+            System.arraycopy(found, 0, next, at, count);
+            nextArcs.addAndGet(arcs);
+        }
+    }
+
+    /**
+     * Gets the label of the vertex that arc a leaves.
+     * @param a the arc
+     * @return the tail of a
+     */
+    private int tailOf(int a) {
+        return net.getArcTarget(net.getReverseArc(a));
+    }
+
+    /**
+     * Gets the number of vertices whose arcs the last search looked at.
+     * @return the number of vertices
+     */
+    public long getVerticesScanned() {
+        return verticesScanned.get();
+    }
+
+    /**
+     * Gets the number of arcs the last search looked at.
+     * @return the number of arcs
+     */
+    public long getArcsScanned() {
+        return arcsScanned.get();
+    }
+
+    /**
+     * Expands a range of the frontier: every vertex reached over a residual arc from one in
+     * the range, and not yet claimed, is claimed and added to the next level.
+     */
+    private class TopDown extends RecursiveAction {
+
+        /** The serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The range of positions in the frontier. */
+        private int lo, hi;
+
+        TopDown(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new TopDown(lo, mid), new TopDown(mid, hi));
+                return;
+            }
+            int[] found = new int[64];
+            int count = 0;
+            long foundArcs = 0;
+            long arcs = 0;
+            int i;
+            // once any task has reached the target the rest of the level is not needed
+            for (i = lo; i < hi && reached[target] != epoch; i++) {
+                int u = frontier[i];
+                int end = net.getArcEnd(u);
+                arcs += end - net.getArcStart(u);
+                for (int a = net.getArcStart(u); a < end; a++) {
+                    int v = net.getArcTarget(a);
+                    if (reached[v] != epoch && net.getResidualCap(a) >= minCap && claim(v)) {
+                        pred[v] = a;
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, 2 * count);
+                        }
+                        found[count++] = v;
+                        foundArcs += net.getArcEnd(v) - net.getArcStart(v);
+                    }
+                }
+            }
+            addToNext(found, count, foundArcs);
+            verticesScanned.addAndGet(i - lo);
+            arcsScanned.addAndGet(arcs);
+        }
+    }
+
+    /**
+     * Checks a range of vertices: every one not yet reached that has a residual arc from
+     * the frontier is reached through the first such arc and added to the next level. Only
+     * the task of its range writes to a vertex, so no compare-and-set is needed.
+     */
+    private class BottomUp extends RecursiveAction {
+
+        /** The serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The range of vertex labels. */
+        private int lo, hi;
+
+        BottomUp(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > BOTTOM_UP_GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new BottomUp(lo, mid), new BottomUp(mid, hi));
+                return;
+            }
+            int[] found = new int[64];
+            int count = 0;
+            long foundArcs = 0;
+            long scanned = 0;
+            long arcs = 0;
+            for (int v = lo; v < hi && reached[target] != epoch; v++) {
+                if (reached[v] == epoch) {
+                    continue;
+                }
+                scanned++;
+                int end = net.getArcEnd(v);
+                // the arcs into v are the reverse arcs of those leaving it
+                for (int b = net.getArcStart(v); b < end; b++) {
+                    arcs++;
+                    int w = net.getArcTarget(b);
+                    if (inFrontier[w] != frontierStamp) {
+                        continue;
+                    }
+                    int a = net.getReverseArc(b);
+                    if (net.getResidualCap(a) >= minCap) {
+                        reached[v] = epoch;
+                        pred[v] = a;
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, 2 * count);
+                        }
+                        found[count++] = v;
+                        foundArcs += end - net.getArcStart(v);
+                        break;
+                    }
+                }
+            }
+            addToNext(found, count, foundArcs);
+            verticesScanned.addAndGet(scanned);
+            arcsScanned.addAndGet(arcs);
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package networkFlow;
+import java.lang.invoke.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * The Class ParallelPushRelabel.
+ * Computes a maximum flow with a synchronous parallel push-relabel algorithm, for networks so
+ * large that a single thread discharging them is the bottleneck. The active vertices are
+ * discharged in rounds, split among fork-join tasks. A round reads the heights every vertex
+ * had when it began and writes the new ones aside, and the excess pushed into a vertex is
+ * added to a separate array with an atomic add, so that the task discharging a vertex is the
+ * only one to read or write its own excess. Flow is pushed along an arc with a
+ * compare-and-set on the flow of its edge, so two vertices pushing along the same edge from
+ * either end never take more than its residual capacity.
+ *
+ * When both ends of an arc are active in a round only one of them, chosen by their heights,
+ * may push along it, which keeps the heights valid. Heights are recomputed by a parallel
+ * global relabel, a level-synchronous breadth first search backwards from the sink, once the
+ * rounds since the last have done enough work, and each time no active vertex is left: only
+ * if there is still none after the global relabel is the flow maximum.
+ *
+ * As PushRelabel does, the first phase computes a maximum preflow and the second returns the
+ * excess that could not reach the sink to the source.
+ */
+public class ParallelPushRelabel {
+
+    /** Active vertices discharged by one task. */
+    private static final int GRAIN = 1 << 6;
+
+    /** Frontier vertices expanded by one task of a global relabel. */
+    private static final int RELABEL_GRAIN = 1 << 10;
+
+    /** A global relabel is run once the rounds since the last have scanned more than
+     *  WORK_FACTOR * n + m arcs. */
+    private static final int WORK_FACTOR = 6;
+
+    /** Atomic operations on the elements of int arrays. */
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /** Atomic adds on the elements of long arrays. */
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /** The network on which the algorithm is run. */
+    private Network net;
+
+    /** The number of vertices in the network. */
+    private int n;
+
+    /** height[v] is the height of v when the current round began. */
+    private int[] height;
+
+    /** newHeight[v] is the height of v after it was discharged in the current round. */
+    private int[] newHeight;
+
+    /** excess[v] is the flow into v minus the flow out of v, as of the last round. */
+    private long[] excess;
+
+    /** incoming[v] is the flow pushed into v during the current round. */
+    private long[] incoming;
+
+    /** activeIn[v] is the round v is discharged in, or an earlier one. */
+    private int[] activeIn;
+
+    /** queuedFor[v] is the round v was last added to the active vertices of. */
+    private int[] queuedFor;
+
+    /** The active vertices of the current round and of the next one. */
+    private int[] active, next;
+    private int activeSize;
+    private AtomicInteger nextSize = new AtomicInteger();
+
+    /** The current round. */
+    private int round;
+
+    /** The terminal excess is moved to in the current phase, and the other one. */
+    private int target, other;
+
+    /** The number of arcs scanned since the last global relabel. */
+    private AtomicLong work = new AtomicLong();
+
+    /** The number of rounds run. */
+    private long rounds;
+
+    /** The number of global relabels run. */
+    private long globalRelabels;
+
+    /**
+     * Instantiates a new ParallelPushRelabel object.
+     * @param net the network
+     */
+    public ParallelPushRelabel(Network net) {
+        this.net = net;
+        n = net.getNumVertices();
+        height = new int[n];
+        newHeight = new int[n];
+        excess = new long[n];
+        incoming = new long[n];
+        activeIn = new int[n];
+        queuedFor = new int[n];
+        active = new int[n];
+        next = new int[n];
+    }
+
+    /**
+     * Increases the flow of the network to a maximum flow,
+     * starting from whatever valid flow it currently holds.
+     */
+    public void maxFlow() {
+        int sourceLabel = net.getSource().getLabel();
+        int sinkLabel = net.getSink().getLabel();
+
+        // saturate every arc leaving the source
+        for (int a = net.getArcStart(sourceLabel); a < net.getArcEnd(sourceLabel); a++) {
+            long c = net.getResidualCap(a);
+            if (c > 0) {
+                net.updateFlow(a, c);
+                excess[net.getArcTarget(a)] += c;
+                excess[sourceLabel] -= c;
+            }
+        }
+
+        // phase 1: move as much excess as possible to the sink
+        discharge(sinkLabel, sourceLabel);
+        // phase 2: return the excess that cannot reach the sink to the source
+        discharge(sourceLabel, sinkLabel);
+    }
+
+    /**
+     * Discharges active vertices in rounds until none that can reach target is left.
+     * @param target the terminal that excess is moved to
+     * @param other the other terminal, which is never pushed to
+     */
+    private void discharge(int target, int other) {
+        this.target = target;
+        this.other = other;
+        long workLimit = (long) WORK_FACTOR * n + net.getArcEnd(n - 1);
+        while (true) {
+            globalRelabel();
+            activeSize = 0;
+            nextRound();
+            for (int v = 0; v < n; v++) {
+                if (excess[v] > 0 && height[v] < n && v != target && v != other) {
+                    queuedFor[v] = round;
+                    active[activeSize++] = v;
+                }
+            }
+            if (activeSize == 0) {
+                return;
+            }
+            while (activeSize > 0 && work.get() < workLimit) {
+                for (int i = 0; i < activeSize; i++) {
+                    activeIn[active[i]] = round;
+                }
+                nextRound();
+                nextSize.set(0);
+                new Round(0, activeSize).invoke();
+                int count = nextSize.get();
+                new Apply(0, Math.max(activeSize, count), count).invoke();
+                int[] t = active;
+                active = next;
+                next = t;
+                activeSize = nextSize.get();
+                rounds++;
+            }
+        }
+    }
+
+    /**
+     * Moves on to the next round, clearing the round stamps before they could wrap around.
+     */
+    private void nextRound() {
+        round++;
+        if (round == Integer.MAX_VALUE) { // only after ~2^31 rounds
+            Arrays.fill(activeIn, 0);
+            Arrays.fill(queuedFor, 0);
+            round = 1;
+        }
+    }
+
+    /**
+     * Returns true if v, active in this round at old height hv, may push to w, active at old
+     * height hw. Exactly one of any two vertices wins the arcs between them: the higher if
+     * their heights differ by one, the lower if by more, and the smaller label if level.
+     * @param v the label of the vertex pushing
+     * @param hv the height of v when the round began
+     * @param w the label of the vertex pushed to
+     * @param hw the height of w when the round began
+     * @return true, if v wins the arc
+     */
+    private static boolean wins(int v, int hv, int w, int hw) {
+        return hv == hw + 1 || hv < hw - 1 || (hv == hw && v < w);
+    }
+
+    /**
+     * Adds v to the active vertices of the next round unless it already has been.
+     * @param v the vertex label
+     * @return true, if this call added v
+     */
+    private boolean queue(int v) {
+        int old = queuedFor[v];
+        return old != round && INTS.compareAndSet(queuedFor, v, old, round);
+    }
+
+    /**
+     * Appends the vertices a task queued to the active vertices of the next round.
+     * @param found the vertices, in its first count entries
+     * @param count the number of vertices
+     */
+    private void addToNext(int[] found, int count) {
+        if (count > 0) {
+            int at = nextSize.getAndAdd(count);
+            System.arraycopy(found, 0, next, at, count);
+        }
+    }
+
+    /**
+     * Sets every height to the exact distance to target in the residual graph, found by a
+     * level-synchronous breadth first search backwards from target. Vertices that cannot
+     * reach target get height n. The other terminal keeps height n and is never searched
+     * through.
+     */
+    private void globalRelabel() {
+        globalRelabels++;
+        work.set(0);
+        Arrays.fill(height, n);
+        height[target] = 0;
+        active[0] = target;
+        activeSize = 1;
+        for (int level = 1; activeSize > 0; level++) {
+            nextSize.set(0);
+            new Relabel(0, activeSize, level).invoke();
+            int[] t = active;
+            active = next;
+            next = t;
+            activeSize = nextSize.get();
+        }
+    }
+
+    /**
+     * Gets the number of rounds of discharges run.
+     * @return the number of rounds
+     */
+    public long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Gets the number of global relabels run.
+     * @return the number of global relabels
+     */
+    public long getGlobalRelabels() {
+        return globalRelabels;
+    }
+
+    /**
+     * Discharges a range of the active vertices of a round. A vertex pushes its excess
+     * along arcs to vertices one lower, and when it has none left relabels itself to one
+     * above its lowest neighbour, until its excess is gone, it can no longer reach target,
+     * or what is left must wait for an arc that a neighbour won in this round.
+     */
+    private class Round extends RecursiveAction {
+
+        /** The serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The range of positions in the active vertices. */
+        private int lo, hi;
+
+        Round(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Round(lo, mid), new Round(mid, hi));
+                return;
+            }
+            int[] found = new int[64];
+            int count = 0;
+            long arcs = 0;
+            for (int i = lo; i < hi; i++) {
+                int v = active[i];
+                int hv = height[v];
+                int h = hv;
+                long e = excess[v];
+                int start = net.getArcStart(v);
+                int end = net.getArcEnd(v);
+                boolean waiting = false;
+                while (e > 0 && h < n) {
+                    int lowest = 2 * n;
+                    boolean lost = false;
+                    for (int a = start; a < end && e > 0; a++) {
+                        arcs++;
+                        int w = net.getArcTarget(a);
+                        if (w == other || net.getResidualCap(a) == 0) {
+                            continue;
+                        }
+                        int hw = height[w];
+                        if (activeIn[w] == round - 1 && !wins(v, hv, w, hw)) {
+                            lost = true;
+                            continue;
+                        }
+                        if (h == hw + 1) {
+                            long delta = net.pushAtomically(a, e);
+                            if (delta > 0) {
+                                e -= delta;
+                                if (w != target) {
+                                    LONGS.getAndAdd(incoming, w, delta);
+                                    if (queue(w)) {
+                                        if (count == found.length) {
+                                            found = Arrays.copyOf(found, 2 * count);
+                                        }
+                                        found[count++] = w;
+                                    }
+                                }
+                            }
+                        }
+                        else if (hw + 1 < lowest) {
+                            lowest = hw + 1;
+                        }
+                    }
+                    if (e == 0) {
+                        break;
+                    }
+                    if (lowest <= h) {
+                        // an arc filled up under us; try again next round
+                        waiting = true;
+                        break;
+                    }
+                    if (lowest >= n && lost) {
+                        // only arcs a neighbour won are left, so the height stays
+                        waiting = true;
+                        break;
+                    }
+                    h = Math.min(lowest, n);
+                }
+                newHeight[v] = h;
+                excess[v] = e;
+                if (e > 0 && (h < n || waiting) && queue(v)) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, 2 * count);
+                    }
+                    found[count++] = v;
+                }
+            }
+            addToNext(found, count);
+            work.addAndGet(arcs);
+        }
+    }
+
+    /**
+     * Ends a round over a range of positions: the vertices discharged take their new
+     * heights, and those active in the next round take in the excess pushed to them.
+     */
+    private class Apply extends RecursiveAction {
+
+        /** The serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The range of positions, in the active vertices of this round and of the next. */
+        private int lo, hi;
+
+        /** The number of active vertices in the next round. */
+        private int nextCount;
+
+        Apply(int lo, int hi, int nextCount) {
+            this.lo = lo;
+            this.hi = hi;
+            this.nextCount = nextCount;
+        }
+
+        protected void compute() {
+            if (hi - lo > RELABEL_GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Apply(lo, mid, nextCount), new Apply(mid, hi, nextCount));
+                return;
+            }
+            for (int i = lo; i < hi && i < activeSize; i++) {
+                int v = active[i];
+                height[v] = newHeight[v];
+            }
+            for (int i = lo; i < hi && i < nextCount; i++) {
+                int v = next[i];
+                excess[v] += incoming[v];
+                incoming[v] = 0;
+            }
+        }
+    }
+
+    /**
+     * Expands a range of the frontier of a global relabel: every vertex not yet reached
+     * that can move flow to a vertex in the range is claimed with a compare-and-set on its
+     * height, and added to the next level.
+     */
+    private class Relabel extends RecursiveAction {
+
+        /** The serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The range of positions in the frontier. */
+        private int lo, hi;
+
+        /** The height given to the vertices reached. */
+        private int level;
+
+        Relabel(int lo, int hi, int level) {
+            this.lo = lo;
+            this.hi = hi;
+            this.level = level;
+        }
+
+        protected void compute() {
+            if (hi - lo > RELABEL_GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Relabel(lo, mid, level), new Relabel(mid, hi, level));
+                return;
+            }
+            int[] found = new int[64];
+            int count = 0;
+            for (int i = lo; i < hi; i++) {
+                int v = active[i];
+                for (int a = net.getArcStart(v); a < net.getArcEnd(v); a++) {
+                    int u = net.getArcTarget(a);
+                    // u can move flow to v if the arc from u back to v has residual capacity
+                    if (height[u] == n && u != target && u != other
+                            && net.getResidualCap(net.getReverseArc(a)) > 0
+                            && INTS.compareAndSet(height, u, n, level)) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, 2 * count);
+                        }
+                        found[count++] = u;
+                    }
+                }
+            }
+            addToNext(found, count);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package networkFlow;
+
+/**
+ * The Interface SolverListener.
+ * Is told what the solver is doing as it does it: when each phase starts and finishes, how
+ * much of the graph every search for an augmenting path scanned, and every augmentation.
+ * The searches and augmentations are only reported by the algorithms that augment along
+ * one path at a time. Every method is called on the solving thread, so an implementation
+ * must return quickly.
+ */
+public interface SolverListener {
+
+    /**
+     * Called when a phase starts.
+     * @param phase the phase
+     */
+    void phaseStarted(SolverPhase phase);
+
+    /**
+     * Called when a phase finishes.
+     * @param phase the phase
+     */
+    void phaseFinished(SolverPhase phase);
+
+    /**
+     * Called once the network has been read from the input, before the parse phase finishes.
+     * @param bytesRead the number of bytes read
+     * @param linesRead the number of lines read
+     * @param numVertices the number of vertices of the network
+     * @param numEdges the number of edges of the network
+     */
+    void networkRead(long bytesRead, int linesRead, int numVertices, int numEdges);
+
+    /**
+     * Called after every search for an augmenting path, whether or not one was found.
+     * @param verticesScanned the number of vertices whose arcs were looked at
+     * @param arcsScanned the number of arcs looked at
+     * @param pathLength the number of arcs on the path found, or 0 if there is none
+     */
+    void searchFinished(int verticesScanned, int arcsScanned, int pathLength);
+
+    /**
+     * Called after the flow has been augmented along a path.
+     * @param pathLength the number of arcs on the path
+     * @param bottleneck the flow pushed along it
+     */
+    void augmented(int pathLength, long bottleneck);
+
+    /**
+     * Combines two listeners into one that tells the first and then the second.
+     * @param first the first listener, or null
+     * @param second the second listener, or null
+     * @return a listener telling both, or the other one if either is null
+     */
+    static SolverListener both(SolverListener first, SolverListener second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return new SolverListener() {
+            public void phaseStarted(SolverPhase phase) {
+                first.phaseStarted(phase);
+                second.phaseStarted(phase);
+            }
+
+            public void phaseFinished(SolverPhase phase) {
+                first.phaseFinished(phase);
+                second.phaseFinished(phase);
+            }
+
+            public void networkRead(long bytesRead, int linesRead, int numVertices, int numEdges) {
+                first.networkRead(bytesRead, linesRead, numVertices, numEdges);
+                second.networkRead(bytesRead, linesRead, numVertices, numEdges);
+            }
+
+            public void searchFinished(int verticesScanned, int arcsScanned, int pathLength) {
+                first.searchFinished(verticesScanned, arcsScanned, pathLength);
+                second.searchFinished(verticesScanned, arcsScanned, pathLength);
+            }
+
+            public void augmented(int pathLength, long bottleneck) {
+                first.augmented(pathLength, bottleneck);
+                second.augmented(pathLength, bottleneck);
+            }
+        };
+    }
+}
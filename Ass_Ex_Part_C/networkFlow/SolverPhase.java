@@ -0,0 +1,51 @@
+package networkFlow;
+
+/**
+ * The Enum SolverPhase.
+ * The phases of a run that are timed and reported to a SolverListener.
+ */
+public enum SolverPhase {
+
+    /** Reading the input file and building the network. */
+    PARSE("parse"),
+
+    /** Measuring the network to choose the algorithm, with --algorithm=auto. */
+    ANALYSE("analyse"),
+
+    /** Finding the maximum flow, made up of the two phases below when there are lower quotas. */
+    SOLVE("solve"),
+
+    /** Finding a flow that meets the lecturer lower quotas. */
+    LOWER_QUOTAS("lower quotas"),
+
+    /** Maximising that flow up to the upper quotas. */
+    UPPER_QUOTAS("upper quotas"),
+
+    /** Building a residual graph, once per augmenting path with --rebuild-residual. */
+    RESIDUAL_BUILD("residual build"),
+
+    /** Checking that the flow found is a valid flow. */
+    VALIDATE("validate"),
+
+    /** Writing the results. */
+    OUTPUT("output");
+
+    /** The name used when the phase is reported. */
+    private String name;
+
+    /**
+     * Instantiates a new phase constant.
+     * @param name the name used when the phase is reported
+     */
+    SolverPhase(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name used when the phase is reported.
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+}
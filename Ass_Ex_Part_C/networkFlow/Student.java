@@ -34,6 +34,17 @@ public class Student extends Vertex {
         this.choices = choices;
     }
 
+    /**
+     * Instantiates a new vertex from a flag already read as a boolean.
+     *
+     * @param i the vertex label
+     */
+    public Student(int i, boolean isSE, ArrayList<Integer> choices) {
+        super(i);
+        this.isSE = isSE;
+        this.choices = choices;
+    }
+
     public int getLabel(){
         return super.label;
     }
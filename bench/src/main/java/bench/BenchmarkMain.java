@@ -0,0 +1,24 @@
+package bench;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * The Class BenchmarkMain.
+ * Runs the benchmarks with the JMH command line options given, always with the gc profiler
+ * so that the allocation rate is reported next to the throughput.
+ */
+public class BenchmarkMain {
+
+    /**
+     * The main method.
+     * @param args JMH command line options, e.g. a benchmark name pattern or -p size=1000
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,191 @@
+package bench;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import networkFlow.*;
+
+/**
+ * The Class CrossCheck.
+ * Solves general Part A networks, with edges into the source and out of the sink, with
+ * every algorithm and checks that each finds a valid flow of the value the shortest
+ * augmenting path algorithm finds. The first network is a fixed one on which push-relabel
+ * once reported the flow it left on a cycle through the source as part of the value; the
+ * rest are written by InstanceGenerator with --kind=general and seeds 1, 2, ... Algorithm.AUTO
+ * is checked too, on the small networks and on a few large ones for which it chooses
+ * push-relabel rather than the shortest augmenting path algorithm.
+ *
+ * With --part=b or --part=c, and the classes of that part on the class path in place of
+ * those of Part A, it checks student/project/lecturer instances instead, with every
+ * algorithm of that part. The first is a fixed one in which a student lists a project
+ * twice, on which Hopcroft-Karp once put flow on both edges; in the rest each preference
+ * repeats an earlier one of its list with chance --repeat-prefs.
+ *
+ * Usage: java -cp bench/target/benchmarks.jar bench.CrossCheck [--count=N] [--vertices=N]
+ * [--large=N] [--large-vertices=N] [--degree=D] [--max-cap=C], by default 200 networks of
+ * 40 vertices and 5 of 2000, of degree 4 and capacities up to 20; or
+ * java -cp Ass_Ex_Part_B/target/classes:bench/target/classes bench.CrossCheck --part=b
+ * [--count=N] [--students=N] [--large=N] [--large-students=N] [--repeat-prefs=X], by default
+ * 200 instances of 40 students and 5 of 2000, with 0.2 for X. The exit status is 0 if every
+ * algorithm agreed on every network.
+ */
+public class CrossCheck {
+
+    /** A network with edges into the source whose maximum flow has value 1. */
+    private static final String REGRESSION =
+            "4\n"
+            + "0 1 8\n"
+            + "1 0 16 2 2\n"
+            + "2 0 20 1 16 3 1\n";
+
+    /** A Part B instance in which student 1 lists project 1 twice, so two students are assigned. */
+    private static final String REGRESSION_B =
+            "2\n2\n1\n"
+            + "1 N 1 1\n"
+            + "2 N 1 2\n"
+            + "1 N 1 1\n"
+            + "2 N 1 1\n"
+            + "1 2\n";
+
+    /** The same instance for Part C, whose lecturer has a lower quota of 0. */
+    private static final String REGRESSION_C = REGRESSION_B.substring(0, REGRESSION_B.length() - 4) + "1 0 2\n";
+
+    /**
+     * The main method.
+     * @param args options of the form --name=value
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                System.err.println("Unknown option: " + arg);
+                System.exit(1);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        int count = Integer.parseInt(options.getOrDefault("count", "200"));
+        int large = Integer.parseInt(options.getOrDefault("large", "5"));
+        String part = options.getOrDefault("part", "a");
+        if (!part.matches("[abc]")) {
+            System.err.println("Unknown part: " + part);
+            System.exit(1);
+        }
+        Path file = Files.createTempFile("crosscheck", ".txt");
+        int failed = 0;
+        try {
+            String regression = part.equals("a") ? REGRESSION : part.equals("b") ? REGRESSION_B : REGRESSION_C;
+            Files.write(file, regression.getBytes(StandardCharsets.US_ASCII));
+            failed += check("regression network", file);
+            for (int seed = 1; seed <= count; seed++) {
+                generate(options, part, seed, false, file);
+                failed += check("seed " + seed, file);
+            }
+            // large enough that Algorithm.AUTO does not take them for small networks
+            for (int seed = 1; seed <= large; seed++) {
+                generate(options, part, seed, true, file);
+                failed += check("large seed " + seed, file);
+            }
+        }
+        finally {
+            Files.delete(file);
+        }
+        int networks = count + large + 1;
+        System.out.println(failed == 0 ? "All " + networks + " networks agree"
+                : failed + " disagreements in " + networks + " networks");
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    /**
+     * Writes a general network, or a student/project/lecturer instance, to a file with
+     * InstanceGenerator.
+     * @param options the options given, for the sizes, degree and largest capacity
+     * @param part a, b or c
+     * @param seed the seed of the network
+     * @param large true for one of the large networks
+     * @param file the file to write to
+     */
+    private static void generate(Map<String, String> options, String part, int seed, boolean large, Path file)
+            throws IOException {
+        Map<String, String> generated = new HashMap<>();
+        generated.put("seed", Integer.toString(seed));
+        if (part.equals("a")) {
+            generated.put("kind", "general");
+            generated.put("vertices", large ? options.getOrDefault("large-vertices", "2000")
+                    : options.getOrDefault("vertices", "40"));
+            generated.put("degree", options.getOrDefault("degree", "4"));
+            generated.put("max-cap", options.getOrDefault("max-cap", "20"));
+        }
+        else {
+            int students = Integer.parseInt(large ? options.getOrDefault("large-students", "2000")
+                    : options.getOrDefault("students", "40"));
+            generated.put("students", Integer.toString(students));
+            generated.put("projects", Integer.toString(Math.max(1, students / 3)));
+            generated.put("lecturers", Integer.toString(Math.max(1, students / 20)));
+            generated.put("repeat-prefs", options.getOrDefault("repeat-prefs", "0.2"));
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            InstanceGenerator generator = new InstanceGenerator(generated, out);
+            if (part.equals("a")) {
+                generator.writeNetwork();
+            }
+            else {
+                generator.writeAllocation(part.equals("c"));
+            }
+            generator.flush();
+        }
+    }
+
+    /**
+     * Solves one network with Edmonds-Karp and with every other algorithm, and reports
+     * every algorithm that finds an invalid flow or a flow of another value, or in Part C
+     * a flow meeting the lower quotas where Edmonds-Karp finds none.
+     * @param name the name of the network in the report
+     * @param file the file holding the network
+     * @return the number of algorithms that disagree
+     */
+    private static int check(String name, Path file) {
+        Network reference = solve(file, Algorithm.EDMONDS_KARP);
+        // in Part C no flow may meet the lower quotas, which every algorithm must agree on
+        boolean feasible = reference.isFlow();
+        long expected = reference.getValue();
+        int failed = 0;
+        for (Algorithm a : Algorithm.values()) {
+            if (a == Algorithm.EDMONDS_KARP) {
+                continue;
+            }
+            Network net = solve(file, a);
+            if (!feasible) {
+                if (net.isFlow()) {
+                    System.out.println(name + ": " + a.getName() + " meets the lower quotas, "
+                            + Algorithm.EDMONDS_KARP.getName() + " does not");
+                    failed++;
+                }
+            }
+            else if (!net.isFlow()) {
+                System.out.println(name + ": " + a.getName() + " finds an invalid flow");
+                failed++;
+            }
+            else if (net.getValue() != expected) {
+                System.out.println(name + ": " + a.getName() + " finds value " + net.getValue()
+                        + ", " + Algorithm.EDMONDS_KARP.getName() + " " + expected);
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Reads the network from a file and finds a maximum flow with the given algorithm.
+     * @param file the file
+     * @param a the algorithm
+     * @return the network holding the flow
+     */
+    private static Network solve(Path file, Algorithm a) {
+        FordFulkDriver fordFulk = new FordFulkDriver(file.toString());
+        fordFulk.setAlgorithm(a);
+        fordFulk.readNetworkFromFile();
+        fordFulk.fordFulkerson();
+        return fordFulk.getNetwork();
+    }
+}
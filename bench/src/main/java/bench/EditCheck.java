@@ -0,0 +1,347 @@
+package bench;
+import java.lang.reflect.*;
+import java.util.*;
+import networkFlow.*;
+
+/**
+ * The Class EditCheck.
+ * Checks the edits of a network holding a maximum flow: setCapacity, insertEdge, removeEdge,
+ * new vertices with new edges, and removeVertex. Each of many small random networks is
+ * solved and then edited a number of times, and after every edit the flow the edit repaired
+ * is compared with one found from scratch on a copy of the network. It must be a valid flow
+ * of the same value, and the arcs of the network must still pair up and be sorted by target.
+ *
+ * The edits checked are those of whichever part is on the class path. In Part C some edges
+ * get a lower bound, and the edits also tell whether a flow meeting the lower bounds still
+ * exists, which must agree with the answer found from scratch through LowerBounds. The
+ * methods whose signatures differ between the parts are called by reflection.
+ *
+ * Usage: java -cp Ass_Ex_Part_C/target/classes:bench/target/classes bench.EditCheck [--count=N]
+ * [--edits=K], by default 2000 networks of 15 edits each. The exit status is 0 if every
+ * repaired flow agreed with the one found from scratch.
+ */
+public class EditCheck {
+
+    /** The names of the edits, by the number edit takes. */
+    private static final String[] OPERATIONS = {
+        "setCapacity", "removeEdge", "insertEdge", "new vertex", "removeVertex"
+    };
+
+    /** Network.setCapacity(int, long), which returns a boolean in Part C only. */
+    private static final Method SET_CAPACITY = method("setCapacity", int.class, long.class);
+
+    /** Network.removeEdge(int). */
+    private static final Method REMOVE_EDGE = method("removeEdge", int.class);
+
+    /** Network.removeVertex(Vertex). */
+    private static final Method REMOVE_VERTEX = method("removeVertex", Vertex.class);
+
+    /** Network.addEdge(Vertex, Vertex, int, int), with a lower bound, in Part C; else null. */
+    private static final Method ADD_BOUNDED_EDGE = optionalMethod("addEdge", Vertex.class, Vertex.class, int.class, int.class);
+
+    /** Network.getEdgeLower(int) in Part C; else null. */
+    private static final Method GET_EDGE_LOWER = optionalMethod("getEdgeLower", int.class);
+
+    /** True if the network on the class path has lower bounds, as in Part C. */
+    private static final boolean BOUNDED = ADD_BOUNDED_EDGE != null;
+
+    /**
+     * The main method.
+     * @param args options of the form --name=value
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                System.err.println("Unknown option: " + arg);
+                System.exit(1);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        int count = Integer.parseInt(options.getOrDefault("count", "2000"));
+        int numEdits = Integer.parseInt(options.getOrDefault("edits", "15"));
+        int edits = 0, infeasible = 0, failed = 0;
+        for (int seed = 1; seed <= count; seed++) {
+            Random random = new Random(seed);
+            Network net = randomNetwork(random);
+            if (!solve(net)) {
+                continue;
+            }
+            for (int k = 0; k < numEdits; k++) {
+                int op = random.nextInt(5);
+                boolean feasible = edit(net, op, random);
+                edits++;
+                Network fresh = copy(net);
+                String error = null;
+                if (solve(fresh) != feasible) {
+                    error = feasible ? "meets the lower bounds, a fresh solve does not" : "fails the lower bounds, a fresh solve meets them";
+                }
+                else if (!feasible) {
+                    infeasible++;
+                    break;
+                }
+                else if (!arcsConsistent(net)) {
+                    error = "leaves the arcs inconsistent";
+                }
+                else if (!isValid(net)) {
+                    error = "leaves an invalid flow";
+                }
+                else if (net.getValue() != fresh.getValue()) {
+                    error = "leaves value " + net.getValue() + ", a fresh solve finds " + fresh.getValue();
+                }
+                if (error != null) {
+                    System.out.println("seed " + seed + ", edit " + k + " (" + OPERATIONS[op] + "): " + error);
+                    failed++;
+                    break;
+                }
+            }
+        }
+        System.out.println(failed == 0 ? "All " + edits + " edits agree (" + infeasible + " left no feasible flow)"
+                : failed + " of " + edits + " edits disagree");
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    /**
+     * Makes a random network of 4 to 15 vertices, without loops, edges into the source, edges
+     * out of the sink or edges in both directions, and in Part C some lower bounds.
+     * @param random the random generator
+     * @return the network
+     */
+    private static Network randomNetwork(Random random) throws Exception {
+        int n = 4 + random.nextInt(12);
+        Network net = new Network(n);
+        int m = n + random.nextInt(3 * n);
+        for (int i = 0; i < m; i++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (!canJoin(net, u, v)) {
+                continue;
+            }
+            int cap = random.nextInt(6);
+            if (BOUNDED && cap > 0 && random.nextInt(4) == 0) {
+                int lower = random.nextInt(cap + 1) > cap / 2 ? 1 : 0;
+                ADD_BOUNDED_EDGE.invoke(net, net.getVertexByIndex(u), net.getVertexByIndex(v), lower, cap);
+            }
+            else {
+                net.addEdge(net.getVertexByIndex(u), net.getVertexByIndex(v), cap);
+            }
+        }
+        return net;
+    }
+
+    /**
+     * Makes one random edit of a network holding a maximum flow.
+     * @param net the network
+     * @param op the kind of edit, an index into OPERATIONS
+     * @param random the random generator
+     * @return false, if the edit reports that no flow meeting the lower bounds exists
+     */
+    private static boolean edit(Network net, int op, Random random) throws Exception {
+        Object feasible = null;
+        int n = net.getNumVertices();
+        if (op == 0 && net.getNumEdges() > 0) {
+            int e = random.nextInt(net.getNumEdges());
+            long cap = Math.max(net.getEdgeCap(e) + random.nextInt(7) - 4, lowerOf(net, e));
+            feasible = SET_CAPACITY.invoke(net, e, cap);
+        }
+        else if (op == 1 && net.getNumEdges() > 0) {
+            feasible = REMOVE_EDGE.invoke(net, random.nextInt(net.getNumEdges()));
+        }
+        else if (op == 2) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (canJoin(net, u, v)) {
+                net.insertEdge(net.getVertexByIndex(u), net.getVertexByIndex(v), random.nextInt(6));
+            }
+        }
+        else if (op == 3) {
+            Vertex x = net.appendVertex();
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (canJoin(net, u, x.getLabel())) {
+                net.insertEdge(net.getVertexByIndex(u), x, random.nextInt(6));
+            }
+            if (canJoin(net, x.getLabel(), v)) {
+                net.insertEdge(x, net.getVertexByIndex(v), random.nextInt(6));
+            }
+        }
+        else if (op == 4) {
+            int v = 1 + random.nextInt(n - 1);
+            if (v != net.getSink().getLabel()) {
+                feasible = REMOVE_VERTEX.invoke(net, net.getVertexByIndex(v));
+            }
+        }
+        return !Boolean.FALSE.equals(feasible);
+    }
+
+    /**
+     * Returns true if an edge from u to v may be added: it is no loop, does not enter the
+     * source or leave the sink, and there is no edge between u and v yet.
+     * @param net the network
+     * @param u the label of the source endpoint
+     * @param v the label of the target endpoint
+     * @return true, if the edge may be added
+     */
+    private static boolean canJoin(Network net, int u, int v) {
+        return u != v && v != net.getSource().getLabel() && u != net.getSink().getLabel()
+                && net.findEdge(u, v) < 0 && net.findEdge(v, u) < 0;
+    }
+
+    /**
+     * Copies the edges of a network, without their flow, into a new one. Vertices appended
+     * since the network was made come after its sink, so the copy swaps that with the last
+     * vertex, which a new Network takes for the sink.
+     * @param net the network
+     * @return the copy
+     */
+    private static Network copy(Network net) throws Exception {
+        int n = net.getNumVertices();
+        int sink = net.getSink().getLabel();
+        Network copy = new Network(n);
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            Vertex u = copy.getVertexByIndex(swap(net.getEdgeSource(e), sink, n - 1));
+            Vertex v = copy.getVertexByIndex(swap(net.getEdgeTarget(e), sink, n - 1));
+            if (BOUNDED) {
+                ADD_BOUNDED_EDGE.invoke(copy, u, v, lowerOf(net, e), (int) net.getEdgeCap(e));
+            }
+            else {
+                copy.addEdge(u, v, net.getEdgeCap(e));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Exchanges labels a and b.
+     * @param x a label
+     * @param a one label
+     * @param b the other
+     * @return b if x is a, a if x is b, and x otherwise
+     */
+    private static int swap(int x, int a, int b) {
+        return x == a ? b : x == b ? a : x;
+    }
+
+    /**
+     * Finds a maximum flow from zero flow, with Dinic's algorithm, and in Part C through
+     * LowerBounds first.
+     * @param net the network
+     * @return false, if no flow meets the lower bounds
+     */
+    private static boolean solve(Network net) throws Exception {
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            net.setEdgeFlow(e, 0);
+        }
+        if (!BOUNDED) {
+            new Dinic(net).maxFlow();
+            return true;
+        }
+        Class<?> c = Class.forName("networkFlow.LowerBounds");
+        Object bounds = c.getConstructor(Network.class).newInstance(net);
+        new Dinic((Network) c.getMethod("getDemandNetwork").invoke(bounds)).maxFlow();
+        if (!(Boolean) c.getMethod("isFeasible").invoke(bounds)) {
+            return false;
+        }
+        c.getMethod("shift").invoke(bounds);
+        new Dinic(net).maxFlow();
+        c.getMethod("unshift").invoke(bounds);
+        return true;
+    }
+
+    /**
+     * Returns true if every flow lies between the lower bound and the capacity of its edge
+     * and is conserved at every vertex but the source and sink.
+     * @param net the network
+     * @return true, if the flow is valid
+     */
+    private static boolean isValid(Network net) throws Exception {
+        long[] balance = new long[net.getNumVertices()];
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            long f = net.getEdgeFlow(e);
+            if (f < lowerOf(net, e) || f > net.getEdgeCap(e)) {
+                return false;
+            }
+            balance[net.getEdgeSource(e)] -= f;
+            balance[net.getEdgeTarget(e)] += f;
+        }
+        for (int v = 0; v < balance.length; v++) {
+            if (v != net.getSource().getLabel() && v != net.getSink().getLabel() && balance[v] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the arcs still describe the edges: every arc and its reverse run over
+     * the same edge in opposite directions from the right vertices, the arcs of a vertex are
+     * sorted by target, and every edge can be found.
+     * @param net the network
+     * @return true, if the arcs are consistent with the edges
+     */
+    private static boolean arcsConsistent(Network net) {
+        int arcs = 0;
+        for (int u = 0; u < net.getNumVertices(); u++) {
+            for (int a = net.getArcStart(u); a < net.getArcEnd(u); a++) {
+                arcs++;
+                int e = net.getArcEdge(a);
+                int r = net.getReverseArc(a);
+                if (net.getReverseArc(r) != a || net.getArcEdge(r) != e || net.isForwardArc(a) == net.isForwardArc(r)) {
+                    return false;
+                }
+                int from = net.isForwardArc(a) ? net.getEdgeSource(e) : net.getEdgeTarget(e);
+                int to = net.isForwardArc(a) ? net.getEdgeTarget(e) : net.getEdgeSource(e);
+                if (from != u || to != net.getArcTarget(a)) {
+                    return false;
+                }
+                if (a > net.getArcStart(u) && net.getArcTarget(a - 1) > net.getArcTarget(a)) {
+                    return false;
+                }
+            }
+        }
+        for (int e = 0; e < net.getNumEdges(); e++) {
+            if (net.findEdge(net.getEdgeSource(e), net.getEdgeTarget(e)) < 0) {
+                return false;
+            }
+        }
+        return arcs == 2 * net.getNumEdges();
+    }
+
+    /**
+     * Gets the lower bound of edge e.
+     * @param net the network
+     * @param e the edge index
+     * @return the lower bound, 0 outside Part C
+     */
+    private static int lowerOf(Network net, int e) throws Exception {
+        return BOUNDED ? (Integer) GET_EDGE_LOWER.invoke(net, e) : 0;
+    }
+
+    /**
+     * Finds a public method of Network.
+     * @param name the name of the method
+     * @param types the types of its parameters
+     * @return the method
+     */
+    private static Method method(String name, Class<?>... types) {
+        try {
+            return Network.class.getMethod(name, types);
+        }
+        catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Finds a public method of Network that only some parts have.
+     * @param name the name of the method
+     * @param types the types of its parameters
+     * @return the method, or null if the part on the class path lacks it
+     */
+    private static Method optionalMethod(String name, Class<?>... types) {
+        try {
+            return Network.class.getMethod(name, types);
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
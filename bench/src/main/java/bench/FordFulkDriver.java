@@ -0,0 +1,124 @@
+package bench;
+import java.lang.invoke.*;
+import networkFlow.*;
+
+/**
+ * The Class FordFulkDriver.
+ * FordFulk lives in the default package, which cannot be imported from a named package and
+ * so not from a JMH benchmark, so its methods are called through method handles instead.
+ */
+public class FordFulkDriver {
+
+    private static final MethodHandle NEW;
+    private static final MethodHandle READ;
+    private static final MethodHandle SOLVE;
+    private static final MethodHandle SET_ALGORITHM;
+    private static final MethodHandle GET_NETWORK;
+
+    static {
+        try {
+            Class<?> c = Class.forName("FordFulk");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            NEW = lookup.findConstructor(c, MethodType.methodType(void.class, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+            READ = lookup.findVirtual(c, "readNetworkFromFile", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            MethodHandle solve;
+            try {
+                solve = lookup.findVirtual(c, "fordFulkerson", MethodType.methodType(void.class));
+            }
+            catch (NoSuchMethodException e) { // Part C's also tells whether the lower quotas can be met
+                solve = lookup.findVirtual(c, "fordFulkerson", MethodType.methodType(boolean.class));
+            }
+            SOLVE = solve.asType(MethodType.methodType(void.class, Object.class));
+            SET_ALGORITHM = lookup.findVirtual(c, "setAlgorithm", MethodType.methodType(void.class, Algorithm.class))
+                    .asType(MethodType.methodType(void.class, Object.class, Algorithm.class));
+            GET_NETWORK = lookup.findVirtual(c, "getNetwork", MethodType.methodType(Network.class))
+                    .asType(MethodType.methodType(Network.class, Object.class));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The FordFulk object. */
+    private final Object fordFulk;
+
+    /**
+     * Instantiates a new FordFulk object for the given input file.
+     * @param filename the name of the input file
+     */
+    public FordFulkDriver(String filename) {
+        try {
+            fordFulk = (Object) NEW.invokeExact(filename);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls readNetworkFromFile.
+     */
+    public void readNetworkFromFile() {
+        try {
+            READ.invokeExact(fordFulk);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls fordFulkerson.
+     */
+    public void fordFulkerson() {
+        try {
+            SOLVE.invokeExact(fordFulk);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls setAlgorithm.
+     * @param a the algorithm
+     */
+    public void setAlgorithm(Algorithm a) {
+        try {
+            SET_ALGORITHM.invokeExact(fordFulk, a);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls getNetwork.
+     * @return the network
+     */
+    public Network getNetwork() {
+        try {
+            return (Network) GET_NETWORK.invokeExact(fordFulk);
+        }
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Wraps a checked exception thrown by FordFulk so that the benchmark fails with it.
+     * @param t the exception
+     * @return the exception to throw
+     */
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,140 @@
+package bench;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import networkFlow.*;
+
+/**
+ * The Class Instance.
+ * A synthetic network in the Part A format: n vertices with the source labelled 0 and the
+ * sink n-1, and DEGREE edges out of every other vertex to distinct vertices a little further
+ * along, so every instance is connected from source to sink and the work grows with n.
+ * The edges are kept in arrays so a Network can be built without reading a file, and the
+ * file is written once per size and seed and then reused.
+ */
+public class Instance {
+
+    /** The number of edges out of every vertex but the sink. */
+    static final int DEGREE = 4;
+
+    /** The edges go to vertices at most this many labels further along. */
+    static final int SPAN = 32;
+
+    /** The largest edge capacity. */
+    static final int MAX_CAP = 100;
+
+    /** The number of vertices. */
+    private int n;
+
+    /** The tail, head and capacity of every edge. */
+    private int[] source, target, cap;
+
+    /** The number of edges. */
+    private int m;
+
+    /**
+     * Generates the instance with n vertices for the given seed.
+     * @param n the number of vertices
+     * @param seed the seed of the random generator
+     */
+    public Instance(int n, long seed) {
+        this.n = n;
+        Random random = new Random(seed);
+        source = new int[DEGREE * n];
+        target = new int[DEGREE * n];
+        cap = new int[DEGREE * n];
+        int[] chosen = new int[DEGREE];
+        for (int u = 0; u < n - 1; u++) {
+            int span = Math.min(SPAN, n - 1 - u);
+            int d = Math.min(DEGREE, span);
+            for (int i = 0; i < d; i++) {
+                int v;
+                boolean repeated;
+                do { // distinct heads, so there are no parallel edges
+                    v = u + 1 + random.nextInt(span);
+                    repeated = false;
+                    for (int j = 0; j < i; j++) {
+                        repeated |= chosen[j] == v;
+                    }
+                } while (repeated);
+                chosen[i] = v;
+                source[m] = u;
+                target[m] = v;
+                cap[m] = 1 + random.nextInt(MAX_CAP);
+                m++;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of vertices.
+     * @return the number of vertices
+     */
+    public int getNumVertices() {
+        return n;
+    }
+
+    /**
+     * Builds a new network with the edges of this instance.
+     * @return the network
+     */
+    public Network build() {
+        Network net = new Network(n);
+        for (int e = 0; e < m; e++) {
+            net.addEdge(net.getVertexByIndex(source[e]), net.getVertexByIndex(target[e]), cap[e]);
+        }
+        net.getArcStart(0); // lay out the arcs now rather than in the first search
+        return net;
+    }
+
+    /**
+     * Writes the instance in the Part A file format to the given file unless it exists already.
+     * @param file the file
+     * @return the file
+     * @throws IOException if the file cannot be written
+     */
+    public Path writeTo(Path file) throws IOException {
+        if (Files.exists(file)) {
+            return file;
+        }
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), "instance", ".tmp");
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(tmp), StandardCharsets.US_ASCII), 1 << 16)) {
+            out.write(Integer.toString(n));
+            out.write('\n');
+            int e = 0;
+            for (int u = 0; u < n; u++) {
+                out.write(Integer.toString(u));
+                while (e < m && source[e] == u) {
+                    out.write(' ');
+                    out.write(Integer.toString(target[e]));
+                    out.write(' ');
+                    out.write(Integer.toString(cap[e]));
+                    e++;
+                }
+                out.write('\n');
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    /**
+     * Gets the file holding the instance with n vertices for the given seed,
+     * writing it to the temporary directory on first use.
+     * @param n the number of vertices
+     * @param seed the seed of the random generator
+     * @return the file
+     * @throws IOException if the file cannot be written
+     */
+    public static Path file(int n, long seed) throws IOException {
+        Path file = Paths.get(System.getProperty("java.io.tmpdir"), "networkflow-bench",
+                "part-a-" + n + "-" + seed + ".txt");
+        if (Files.exists(file)) {
+            return file;
+        }
+        return new Instance(n, seed).writeTo(file);
+    }
+}
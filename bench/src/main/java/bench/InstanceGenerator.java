@@ -0,0 +1,580 @@
+package bench;
+import java.io.*;
+import java.util.*;
+
+/**
+ * The Class InstanceGenerator.
+ * Writes random input files in the formats read by the three FordFulk programs. Output is
+ * streamed a line at a time and nothing is kept per vertex, student or project, so the
+ * memory used does not grow with the size of the instance; the same seed and options
+ * always give the same file.
+ *
+ * Usage: java -cp bench/target/benchmarks.jar bench.InstanceGenerator a|b|c [--option=value ...]
+ *
+ * Part A (a network with source 0 and sink n-1):
+ *   --kind=random|general|grid|layered   the shape of the network (default random); a general
+ *                                network is random but has edges into the source and out of the sink
+ *   --vertices=N                 random, general: the number of vertices (default 1000)
+ *   --degree=D                   random, general, layered: the edges out of every vertex (default 4)
+ *   --rows=R --cols=C            grid: its size (default 30 by 30)
+ *   --layers=K --width=W         layered: the number of layers and vertices in each (default 10 by 100)
+ *   --max-cap=C                  the largest edge capacity (default 100); the solvers reject
+ *                                networks whose capacities sum past 2^63-1
+ *
+ * Parts B and C (students, projects and lecturers):
+ *   --students=S --projects=P --lecturers=L   (default 1000, 300, 50)
+ *   --se-ratio=X                 the fraction of SE students and of SE projects (default 0.3)
+ *   --min-prefs=A --max-prefs=B  the length of a preference list, uniform in [A, B] (default 1, 6)
+ *   --repeat-prefs=X             the chance that a preference repeats an earlier one of the
+ *                                same list, as when a student lists a project twice (default 0)
+ *   --zipf=X                     the exponent of the Zipf popularity of projects, 0 for uniform (default 1)
+ *   --min-cap=A --max-cap=B      the capacity of a project (default 1, 3)
+ *   --min-quota=A --max-quota=B  Part B: the capacity of a lecturer; Part C: its upper quota
+ *                                (default 1 and enough to take every student twice over)
+ *   --max-lower=A                Part C: the largest lower quota, at most the upper quota (default 2)
+ *
+ * Common: --seed=N (default 1) and --out=FILE (default standard output).
+ */
+public class InstanceGenerator {
+
+    /** The output buffer, written out whenever it fills. */
+    private final byte[] buf = new byte[1 << 16];
+
+    /** The number of bytes in buf. */
+    private int count;
+
+    /** The stream the instance is written to. */
+    private final OutputStream out;
+
+    /** The options given on the command line. */
+    private final Map<String, String> options;
+
+    /** The options read so far, to report any that were not recognised. */
+    private final Set<String> used = new HashSet<>();
+
+    /** The random generator. */
+    private final SplittableRandom random;
+
+    /**
+     * Instantiates a new InstanceGenerator.
+     * @param options the options given on the command line
+     * @param out the stream the instance is written to
+     */
+    public InstanceGenerator(Map<String, String> options, OutputStream out) {
+        this.options = options;
+        this.out = out;
+        random = new SplittableRandom(getLong("seed", 1));
+    }
+
+    /**
+     * The main method.
+     * @param args the format, a, b or c, followed by options of the form --name=value
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || !args[0].matches("[abcABC]")) {
+            System.err.println("Usage: InstanceGenerator a|b|c [--option=value ...]");
+            System.exit(1);
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            if (!args[i].startsWith("--") || eq < 0) {
+                System.err.println("Unknown option: " + args[i]);
+                System.exit(1);
+            }
+            options.put(args[i].substring(2, eq), args[i].substring(eq + 1));
+        }
+        String file = options.remove("out");
+        OutputStream out = file == null ? System.out : new FileOutputStream(file);
+        try {
+            InstanceGenerator generator = new InstanceGenerator(options, out);
+            char format = Character.toLowerCase(args[0].charAt(0));
+            if (format == 'a') {
+                generator.writeNetwork();
+            }
+            else {
+                generator.writeAllocation(format == 'c');
+            }
+            generator.flush();
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+        finally {
+            if (file != null) {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Writes a Part A network of the kind chosen by --kind.
+     * @throws IOException if the output cannot be written
+     */
+    public void writeNetwork() throws IOException {
+        String kind = getString("kind", "random");
+        long maxCap = getLong("max-cap", 100);
+        if (kind.equals("random")) {
+            writeRandomNetwork(getInt("vertices", 1000), getInt("degree", 4), maxCap);
+        }
+        else if (kind.equals("general")) {
+            writeGeneralNetwork(getInt("vertices", 1000), getInt("degree", 4), maxCap);
+        }
+        else if (kind.equals("grid")) {
+            writeGridNetwork(getInt("rows", 30), getInt("cols", 30), maxCap);
+        }
+        else if (kind.equals("layered")) {
+            writeLayeredNetwork(getInt("layers", 10), getInt("width", 100), getInt("degree", 4), maxCap);
+        }
+        else {
+            throw new IllegalArgumentException("Unknown kind of network: " + kind);
+        }
+        checkUsed();
+    }
+
+    /**
+     * Writes a network in which every vertex but the sink has edges to degree distinct
+     * other vertices chosen uniformly at random, none of them the source.
+     * @param n the number of vertices
+     * @param degree the number of edges out of every vertex
+     * @param maxCap the largest edge capacity
+     * @throws IOException if the output cannot be written
+     */
+    private void writeRandomNetwork(int n, int degree, long maxCap) throws IOException {
+        require(n >= 2, "A network needs at least 2 vertices");
+        degree = Math.min(degree, n - 2);
+        int[] chosen = new int[degree];
+        writeLine(n);
+        for (int u = 0; u < n; u++) {
+            writeInt(u);
+            if (u != n - 1) {
+                for (int i = 0; i < degree; i++) {
+                    int v;
+                    do {
+                        v = 1 + random.nextInt(n - 1);
+                    } while (v == u || contains(chosen, i, v));
+                    chosen[i] = v;
+                    writeEdge(v, maxCap);
+                }
+            }
+            writeByte('\n');
+        }
+    }
+
+    /**
+     * Writes a network in which every vertex, the sink included, has edges to degree distinct
+     * other vertices chosen uniformly at random, the source included, so that flow can run
+     * round cycles through either terminal.
+     * @param n the number of vertices
+     * @param degree the number of edges out of every vertex
+     * @param maxCap the largest edge capacity
+     * @throws IOException if the output cannot be written
+     */
+    private void writeGeneralNetwork(int n, int degree, long maxCap) throws IOException {
+        require(n >= 2, "A network needs at least 2 vertices");
+        degree = Math.min(degree, n - 1);
+        int[] chosen = new int[degree];
+        writeLine(n);
+        for (int u = 0; u < n; u++) {
+            writeInt(u);
+            for (int i = 0; i < degree; i++) {
+                int v;
+                do {
+                    v = random.nextInt(n);
+                } while (v == u || contains(chosen, i, v));
+                chosen[i] = v;
+                writeEdge(v, maxCap);
+            }
+            writeByte('\n');
+        }
+    }
+
+    /**
+     * Writes a rows by cols grid whose vertices have edges to their right, lower and upper
+     * neighbours, with the source joined to the first column and the last column joined
+     * to the sink. Grid vertex (r, c) has label 1 + r * cols + c.
+     * @param rows the number of rows
+     * @param cols the number of columns
+     * @param maxCap the largest edge capacity
+     * @throws IOException if the output cannot be written
+     */
+    private void writeGridNetwork(int rows, int cols, long maxCap) throws IOException {
+        require(rows >= 1 && cols >= 1, "A grid needs at least one row and one column");
+        int n = rows * cols + 2;
+        writeLine(n);
+        writeInt(0);
+        for (int r = 0; r < rows; r++) {
+            writeEdge(1 + r * cols, maxCap);
+        }
+        writeByte('\n');
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int u = 1 + r * cols + c;
+                writeInt(u);
+                if (c + 1 < cols) {
+                    writeEdge(u + 1, maxCap);
+                }
+                else {
+                    writeEdge(n - 1, maxCap);
+                }
+                if (r + 1 < rows) {
+                    writeEdge(u + cols, maxCap);
+                }
+                if (r > 0) {
+                    writeEdge(u - cols, maxCap);
+                }
+                writeByte('\n');
+            }
+        }
+        writeLine(n - 1);
+    }
+
+    /**
+     * Writes a network of layers vertices deep and width wide, with the source joined to
+     * every vertex of the first layer, degree edges from every vertex to distinct vertices
+     * of the next layer, and every vertex of the last layer joined to the sink.
+     * @param layers the number of layers
+     * @param width the number of vertices in a layer
+     * @param degree the number of edges out of every vertex
+     * @param maxCap the largest edge capacity
+     * @throws IOException if the output cannot be written
+     */
+    private void writeLayeredNetwork(int layers, int width, int degree, long maxCap) throws IOException {
+        require(layers >= 1 && width >= 1, "A layered network needs at least one layer of one vertex");
+        degree = Math.min(degree, width);
+        int n = layers * width + 2;
+        int[] chosen = new int[degree];
+        writeLine(n);
+        writeInt(0);
+        for (int v = 1; v <= width; v++) {
+            writeEdge(v, maxCap);
+        }
+        writeByte('\n');
+        for (int k = 0; k < layers; k++) {
+            for (int i = 0; i < width; i++) {
+                writeInt(1 + k * width + i);
+                if (k + 1 == layers) {
+                    writeEdge(n - 1, maxCap);
+                }
+                else {
+                    int next = 1 + (k + 1) * width;
+                    for (int j = 0; j < degree; j++) {
+                        int v;
+                        do {
+                            v = next + random.nextInt(width);
+                        } while (contains(chosen, j, v));
+                        chosen[j] = v;
+                        writeEdge(v, maxCap);
+                    }
+                }
+                writeByte('\n');
+            }
+        }
+        writeLine(n - 1);
+    }
+
+    /**
+     * Writes a Part B or Part C instance of students, projects and lecturers.
+     * @param lowerQuotas true for Part C, whose lecturers have a lower and an upper quota
+     * @throws IOException if the output cannot be written
+     */
+    public void writeAllocation(boolean lowerQuotas) throws IOException {
+        int numStudents = getInt("students", 1000);
+        int numProjects = getInt("projects", 300);
+        int numLecturers = getInt("lecturers", 50);
+        double seRatio = getDouble("se-ratio", 0.3);
+        int minPrefs = getInt("min-prefs", 1);
+        int maxPrefs = Math.min(getInt("max-prefs", 6), numProjects);
+        double repeat = getDouble("repeat-prefs", 0);
+        double exponent = getDouble("zipf", 1);
+        int minCap = getInt("min-cap", 1);
+        int maxCap = getInt("max-cap", 3);
+        int minQuota = getInt("min-quota", 1);
+        int maxQuota = getInt("max-quota", Math.max(minQuota, 4 * numStudents / Math.max(1, numLecturers)));
+        int maxLower = getInt("max-lower", 2);
+        checkUsed();
+        require(numProjects >= 1 && numLecturers >= 1, "There must be at least one project and one lecturer");
+        require(minPrefs >= 0 && minPrefs <= maxPrefs, "Need 0 <= min-prefs <= max-prefs");
+        require(minCap >= 0 && minCap <= maxCap, "Need 0 <= min-cap <= max-cap");
+        require(minQuota >= 0 && minQuota <= maxQuota, "Need 0 <= min-quota <= max-quota");
+        require(exponent >= 0, "The Zipf exponent cannot be negative");
+
+        writeLine(numStudents);
+        writeLine(numProjects);
+        writeLine(numLecturers);
+
+        // the most popular projects are spread over the ids rather than being the first ones
+        ZipfSampler popularity = new ZipfSampler(numProjects, exponent);
+        long scatter = 1 + random.nextInt(numProjects);
+        while (gcd(scatter, numProjects) != 1) {
+            scatter++;
+        }
+        long shift = random.nextInt(numProjects);
+        int[] chosen = new int[maxPrefs];
+        for (int s = 1; s <= numStudents; s++) {
+            writeInt(s);
+            writeFlag(random.nextDouble() < seRatio);
+            int length = minPrefs + random.nextInt(maxPrefs - minPrefs + 1);
+            for (int i = 0; i < length; i++) {
+                int p;
+                int tries = 0;
+                if (i > 0 && repeat > 0 && random.nextDouble() < repeat) {
+                    p = chosen[random.nextInt(i)];
+                }
+                else {
+                    do { // a heavily skewed list may run out of popular projects, then take any
+                        int rank = ++tries <= 64 ? popularity.sample(random) - 1 : random.nextInt(numProjects);
+                        p = 1 + (int) ((rank * scatter + shift) % numProjects);
+                    } while (contains(chosen, i, p));
+                }
+                chosen[i] = p;
+                writeByte(' ');
+                writeInt(p);
+            }
+            writeByte('\n');
+        }
+        for (int p = 1; p <= numProjects; p++) {
+            writeInt(p);
+            writeFlag(random.nextDouble() < seRatio);
+            writeByte(' ');
+            writeInt(1 + random.nextInt(numLecturers));
+            writeByte(' ');
+            writeInt(minCap + random.nextInt(maxCap - minCap + 1));
+            writeByte('\n');
+        }
+        for (int l = 1; l <= numLecturers; l++) {
+            writeInt(l);
+            int upper = minQuota + random.nextInt(maxQuota - minQuota + 1);
+            if (lowerQuotas) {
+                writeByte(' ');
+                writeInt(random.nextInt(Math.min(maxLower, upper) + 1));
+            }
+            writeByte(' ');
+            writeInt(upper);
+            writeByte('\n');
+        }
+    }
+
+    /**
+     * The Class ZipfSampler.
+     * Draws ranks 1..n with probability proportional to 1 / rank^exponent by rejection
+     * inversion (Hörmann and Derflinger), in constant time and memory whatever n is.
+     */
+    static class ZipfSampler {
+
+        private final int n;
+        private final double exponent;
+        private final double hIntegralX1;
+        private final double hIntegralN;
+        private final double s;
+
+        ZipfSampler(int n, double exponent) {
+            this.n = n;
+            this.exponent = exponent;
+            hIntegralX1 = hIntegral(1.5) - 1;
+            hIntegralN = hIntegral(n + 0.5);
+            s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+        }
+
+        int sample(SplittableRandom random) {
+            for (;;) {
+                double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+                double x = hIntegralInverse(u);
+                int k = (int) (x + 0.5);
+                if (k < 1) {
+                    k = 1;
+                }
+                else if (k > n) {
+                    k = n;
+                }
+                if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        private double h(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        private double hIntegral(double x) {
+            double logX = Math.log(x);
+            return helper2((1 - exponent) * logX) * logX;
+        }
+
+        private double hIntegralInverse(double x) {
+            double t = x * (1 - exponent);
+            if (t < -1) {
+                t = -1;
+            }
+            return Math.exp(helper1(t) * x);
+        }
+
+        /** log(1 + x) / x, accurate near 0. */
+        private static double helper1(double x) {
+            return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+        }
+
+        /** (exp(x) - 1) / x, accurate near 0. */
+        private static double helper2(double x) {
+            return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+        }
+    }
+
+    /**
+     * Writes " v c" for an edge to v with a random capacity from 1 to maxCap.
+     * @param v the head of the edge
+     * @param maxCap the largest edge capacity
+     * @throws IOException if the output cannot be written
+     */
+    private void writeEdge(int v, long maxCap) throws IOException {
+        writeByte(' ');
+        writeInt(v);
+        writeByte(' ');
+        // capacities that fit an int are drawn as before, so existing seeds give the same files
+        writeLong(1 + (maxCap <= Integer.MAX_VALUE ? random.nextInt((int) maxCap) : Math.floorMod(random.nextLong(), maxCap)));
+    }
+
+    /**
+     * Writes " Y" or " N".
+     * @param yes the flag
+     * @throws IOException if the output cannot be written
+     */
+    private void writeFlag(boolean yes) throws IOException {
+        writeByte(' ');
+        writeByte(yes ? 'Y' : 'N');
+    }
+
+    /**
+     * Writes a line holding just x.
+     * @param x the number
+     * @throws IOException if the output cannot be written
+     */
+    private void writeLine(int x) throws IOException {
+        writeInt(x);
+        writeByte('\n');
+    }
+
+    /**
+     * Writes x in decimal.
+     * @param x the number, which must not be negative
+     * @throws IOException if the output cannot be written
+     */
+    private void writeInt(int x) throws IOException {
+        writeLong(x);
+    }
+
+    /**
+     * Writes x in decimal.
+     * @param x the number, which must not be negative
+     * @throws IOException if the output cannot be written
+     */
+    private void writeLong(long x) throws IOException {
+        if (count + 20 > buf.length) {
+            flush();
+        }
+        int digits = 1;
+        for (long y = x / 10; y != 0; y /= 10) {
+            digits++;
+        }
+        int end = count + digits;
+        int i = end;
+        do {
+            buf[--i] = (byte) ('0' + x % 10);
+            x /= 10;
+        } while (x != 0);
+        count = end;
+    }
+
+    /**
+     * Writes one byte.
+     * @param b the byte
+     * @throws IOException if the output cannot be written
+     */
+    private void writeByte(int b) throws IOException {
+        if (count == buf.length) {
+            flush();
+        }
+        buf[count++] = (byte) b;
+    }
+
+    /**
+     * Writes out the buffered bytes.
+     * @throws IOException if the output cannot be written
+     */
+    public void flush() throws IOException {
+        out.write(buf, 0, count);
+        count = 0;
+        out.flush();
+    }
+
+    /**
+     * Returns true if one of the first length entries of a is x.
+     */
+    private static boolean contains(int[] a, int length, int x) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] == x) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Reports the first option given that the chosen format does not use.
+     */
+    private void checkUsed() {
+        for (String name : options.keySet()) {
+            if (!used.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+    }
+
+    private String getString(String name, String dflt) {
+        used.add(name);
+        String value = options.get(name);
+        return value == null ? dflt : value;
+    }
+
+    private int getInt(String name, int dflt) {
+        String value = getString(name, null);
+        try {
+            return value == null ? dflt : Integer.parseInt(value);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not an integer: --" + name + "=" + value);
+        }
+    }
+
+    private long getLong(String name, long dflt) {
+        String value = getString(name, null);
+        try {
+            return value == null ? dflt : Long.parseLong(value);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not an integer: --" + name + "=" + value);
+        }
+    }
+
+    private double getDouble(String name, double dflt) {
+        String value = getString(name, null);
+        try {
+            return value == null ? dflt : Double.parseDouble(value);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: --" + name + "=" + value);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package bench;
+import java.util.concurrent.TimeUnit;
+import networkFlow.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The Class NetworkFlowBenchmark.
+ * Measures each phase of a run on synthetic Part A instances of 1k to 1M vertices: reading
+ * the input file, building the network, finding a maximum flow, building the residual graph
+ * of the maximum flow and checking that it is a valid flow.
+ *
+ * Run with java -jar bench/target/benchmarks.jar, which adds the gc profiler to report the
+ * allocation rate; JMH options such as -p size=1000 or a benchmark name narrow the run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkFlowBenchmark {
+
+    /** The seed of every instance, so all runs measure the same networks. */
+    static final long SEED = 1;
+
+    /**
+     * An instance, its file and the network read from it with a maximum flow.
+     */
+    @State(Scope.Benchmark)
+    public static class Input {
+
+        /** The number of vertices. */
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int size;
+
+        public Instance instance;
+        public String filename;
+        public Network net;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            instance = new Instance(size, SEED);
+            filename = Instance.file(size, SEED).toString();
+            FordFulkDriver fordFulk = new FordFulkDriver(filename);
+            fordFulk.readNetworkFromFile();
+            fordFulk.fordFulkerson();
+            net = fordFulk.getNetwork();
+        }
+    }
+
+    /**
+     * A network read from an instance file, ready to be solved with the chosen algorithm.
+     */
+    @State(Scope.Benchmark)
+    public static class Solver {
+
+        /** The number of vertices. */
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int size;
+
+        /** The name of the algorithm, as given to --algorithm. */
+        @Param({"ek", "dinic", "push-relabel", "parallel-push-relabel", "auto"})
+        public String algorithm;
+
+        public FordFulkDriver fordFulk;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            fordFulk = new FordFulkDriver(Instance.file(size, SEED).toString());
+            fordFulk.setAlgorithm(Algorithm.byName(algorithm));
+            fordFulk.readNetworkFromFile();
+        }
+    }
+
+    @Benchmark
+    public Network readNetworkFromFile(Input in) {
+        FordFulkDriver fordFulk = new FordFulkDriver(in.filename);
+        fordFulk.readNetworkFromFile();
+        return fordFulk.getNetwork();
+    }
+
+    @Benchmark
+    public Network buildNetwork(Input in) {
+        return in.instance.build();
+    }
+
+    /** fordFulkerson sets every flow back to 0 first, so each call solves from scratch. */
+    @Benchmark
+    public long fordFulkerson(Solver s) {
+        s.fordFulk.fordFulkerson();
+        return s.fordFulk.getNetwork().getValue();
+    }
+
+    @Benchmark
+    public ResidualGraph buildResidualGraph(Input in) throws Exception {
+        return new ResidualGraph(in.net);
+    }
+
+    @Benchmark
+    public boolean isFlow(Input in) {
+        return in.net.isFlow();
+    }
+
+    @Benchmark
+    public boolean isFlowParallel(Input in) {
+        return in.net.isFlow(true);
+    }
+}